@@ -0,0 +1,218 @@
+package com.org.crm.common.async;
+
+import com.org.crm.common.events.BaseEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Asynchronous event publishing for {@code EventPublisher}.
+ *
+ * Callers enqueue events into a bounded buffer and return immediately. A
+ * dedicated thread drains the buffer, publishes each batch over one channel
+ * and then awaits the correlated publisher confirms for the batch. When the
+ * buffer stays full for the offer timeout the caller gets {@code false} and
+ * publishes synchronously, which throttles producers to the broker's pace.
+ *
+ * Enabled with {@code crm.events.async.enabled=true}; requires
+ * {@code spring.rabbitmq.publisher-confirm-type: correlated}. Nacked events are
+ * logged and counted, not retried; use the outbox where delivery must be guaranteed.
+ */
+@Component
+@ConditionalOnProperty(prefix = "crm.events.async", name = "enabled", havingValue = "true")
+@Slf4j
+public class AsyncEventDispatcher implements SmartLifecycle {
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final RabbitTemplate rabbitTemplate;
+    private final BlockingQueue<PendingEvent> buffer;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final long confirmTimeoutMs;
+
+    private final Timer confirmLatency;
+    private final Counter published;
+    private final Counter nacked;
+    private final Counter overflow;
+
+    /** Offers hold the read lock so stop() cannot flip running while one is enqueueing */
+    private final ReadWriteLock runningLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private Thread worker;
+
+    public AsyncEventDispatcher(RabbitTemplate rabbitTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${crm.events.async.buffer-size:8192}") int bufferSize,
+                                @Value("${crm.events.async.batch-size:256}") int batchSize,
+                                @Value("${crm.events.async.offer-timeout-ms:50}") long offerTimeoutMs,
+                                @Value("${crm.events.async.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+
+        Gauge.builder("crm.events.async.queue.depth", buffer, BlockingQueue::size)
+                .description("Events waiting in the async publish buffer")
+                .register(meterRegistry);
+        this.confirmLatency = Timer.builder("crm.events.async.confirm.latency")
+                .description("Time from publishing a batch to receiving each publisher confirm")
+                .register(meterRegistry);
+        this.published = Counter.builder("crm.events.async.published")
+                .description("Events confirmed by the broker")
+                .register(meterRegistry);
+        this.nacked = Counter.builder("crm.events.async.nacked")
+                .description("Events nacked, unconfirmed or failed to send")
+                .register(meterRegistry);
+        this.overflow = Counter.builder("crm.events.async.overflow")
+                .description("Events published synchronously because the buffer was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enqueue an event for publishing
+     *
+     * @return false if the dispatcher is stopped or the buffer stayed full; the caller must publish itself
+     */
+    public boolean offer(String exchange, String routingKey, BaseEvent event) {
+        runningLock.readLock().lock();
+        try {
+            if (!running) {
+                return false;
+            }
+            if (buffer.offer(new PendingEvent(exchange, routingKey, event), offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            runningLock.readLock().unlock();
+        }
+        overflow.increment();
+        return false;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::drain, "crm-event-publisher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stop accepting events and flush what is already buffered. Waits for
+     * offers in progress, so every event accepted before this call is in the
+     * buffer before the worker can see it empty and exit.
+     */
+    @Override
+    public void stop() {
+        runningLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            runningLock.writeLock().unlock();
+        }
+        if (worker == null) {
+            return;
+        }
+        try {
+            worker.join(confirmTimeoutMs * 2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!buffer.isEmpty()) {
+            log.warn("Async event publisher stopped with {} unpublished events", buffer.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drain() {
+        List<PendingEvent> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                PendingEvent first = buffer.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                publishBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("❌ Async publisher failed on batch of {} events", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void publishBatch(List<PendingEvent> batch) throws InterruptedException {
+        List<CorrelationData> correlations = new ArrayList<>(batch.size());
+        long start = System.nanoTime();
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (PendingEvent pending : batch) {
+                    CorrelationData correlation = new CorrelationData(pending.event().getEventId());
+                    correlations.add(correlation);
+                    operations.convertAndSend(pending.exchange(), pending.routingKey(), pending.event(), message -> {
+                        message.getMessageProperties().setMessageId(pending.event().getEventId());
+                        return message;
+                    }, correlation);
+                }
+                return null;
+            });
+        } catch (AmqpException e) {
+            nacked.increment(batch.size());
+            log.error("❌ Failed to publish batch of {} events", batch.size(), e);
+            return;
+        }
+
+        for (int i = 0; i < correlations.size(); i++) {
+            PendingEvent pending = batch.get(i);
+            try {
+                CorrelationData.Confirm confirm = correlations.get(i).getFuture().get(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+                confirmLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (confirm.isAck()) {
+                    published.increment();
+                } else {
+                    nacked.increment();
+                    log.warn("Broker nacked event {} ({}): {}",
+                            pending.event().getEventId(), pending.event().getEventType(), confirm.getReason());
+                }
+            } catch (ExecutionException | TimeoutException e) {
+                nacked.increment();
+                log.warn("No publisher confirm for event {} ({}): {}",
+                        pending.event().getEventId(), pending.event().getEventType(), e.getMessage());
+            }
+        }
+    }
+
+    private record PendingEvent(String exchange, String routingKey, BaseEvent event) {}
+}
@@ -1,10 +1,11 @@
 package com.org.crm.common.config;
 
+import com.org.crm.common.messaging.EventMessageConverter;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -25,11 +26,11 @@ public class RabbitMQConfig {
     public static final String CRM_EVENTS_EXCHANGE = "crm.events.exchange";
     
     // Routing keys
-    public static final String CUSTOMER_EVENTS_ROUTING_KEY = "customer.events.*";
-    public static final String LEAD_EVENTS_ROUTING_KEY = "lead.events.*";
-    public static final String TASK_EVENTS_ROUTING_KEY = "task.events.*";
-    public static final String OPPORTUNITY_EVENTS_ROUTING_KEY = "opportunity.events.*";
-    public static final String USER_EVENTS_ROUTING_KEY = "user.events.*";
+    public static final String CUSTOMER_EVENTS_ROUTING_KEY = "customer.events.#";
+    public static final String LEAD_EVENTS_ROUTING_KEY = "lead.events.#";
+    public static final String TASK_EVENTS_ROUTING_KEY = "task.events.#";
+    public static final String OPPORTUNITY_EVENTS_ROUTING_KEY = "opportunity.events.#";
+    public static final String USER_EVENTS_ROUTING_KEY = "user.events.#";
     
     @Bean
     public Queue customerEventsQueue() {
@@ -101,15 +102,18 @@ public class RabbitMQConfig {
                 .with(USER_EVENTS_ROUTING_KEY);
     }
     
+    /**
+     * Reads JSON and binary events; writes binary only when crm.events.binary.enabled is set
+     */
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter eventMessageConverter(@Value("${crm.events.binary.enabled:false}") boolean binaryEnabled) {
+        return new EventMessageConverter(binaryEnabled);
     }
     
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter eventMessageConverter) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(jsonMessageConverter());
+        rabbitTemplate.setMessageConverter(eventMessageConverter);
         return rabbitTemplate;
     }
 } 
\ No newline at end of file
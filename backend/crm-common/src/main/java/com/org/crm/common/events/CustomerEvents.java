@@ -3,6 +3,9 @@ package com.org.crm.common.events;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Customer-related events for the CRM system
  */
@@ -69,15 +72,39 @@ public class CustomerEvents {
     public static class CustomerDeletedEvent extends BaseEvent {
         private Long customerId;
         private String email;
+        private String assignedTo;
         
         public CustomerDeletedEvent() {
             super("customer.deleted", "customer-service");
         }
         
-        public CustomerDeletedEvent(Long customerId, String email) {
+        public CustomerDeletedEvent(Long customerId, String email, String assignedTo) {
             super("customer.deleted", "customer-service");
             this.customerId = customerId;
             this.email = email;
+            this.assignedTo = assignedTo;
+        }
+    }
+    
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class CustomersBulkUpdatedEvent extends BaseEvent {
+        private List<Long> customerIds;
+        private String status;
+        private String assignedTo;
+        private LocalDateTime lastContactDate;
+        
+        public CustomersBulkUpdatedEvent() {
+            super("customer.bulk.updated", "customer-service");
+        }
+        
+        public CustomersBulkUpdatedEvent(List<Long> customerIds, String status, String assignedTo,
+                                         LocalDateTime lastContactDate) {
+            super("customer.bulk.updated", "customer-service");
+            this.customerIds = customerIds;
+            this.status = status;
+            this.assignedTo = assignedTo;
+            this.lastContactDate = lastContactDate;
         }
     }
 } 
\ No newline at end of file
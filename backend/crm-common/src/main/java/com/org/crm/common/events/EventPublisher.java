@@ -1,14 +1,24 @@
 package com.org.crm.common.events;
 
+import com.org.crm.common.async.AsyncEventDispatcher;
 import com.org.crm.common.config.RabbitMQConfig;
+import com.org.crm.common.outbox.OutboxStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
- * Event publisher for the CRM system
+ * Event publisher for the CRM system.
+ *
+ * When the transactional outbox is enabled ({@code crm.outbox.enabled=true})
+ * events are written to the outbox in the caller's transaction and relayed to
+ * RabbitMQ in the background. Otherwise, with {@code crm.events.async.enabled=true},
+ * they are handed to the {@link AsyncEventDispatcher}; failing both they are sent
+ * to the broker directly.
  */
 @Component
 public class EventPublisher {
@@ -18,16 +28,50 @@ public class EventPublisher {
     @Autowired
     private RabbitTemplate rabbitTemplate;
     
+    @Autowired(required = false)
+    private OutboxStore outboxStore;
+    
+    @Autowired(required = false)
+    private AsyncEventDispatcher asyncEventDispatcher;
+    
     /**
      * Publish customer events
      */
     public void publishCustomerEvent(BaseEvent event) {
+        publish("customer", event);
+    }
+    
+    /**
+     * Publish a batch of customer events over a single channel (or a single outbox insert)
+     */
+    public void publishCustomerEvents(List<? extends BaseEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (outboxStore != null) {
+            outboxStore.append(RabbitMQConfig.CRM_EVENTS_EXCHANGE, "customer.events.", events);
+            logger.debug("📥 Queued {} customer events in outbox", events.size());
+            return;
+        }
+        List<BaseEvent> direct = events.stream()
+                .filter(event -> !enqueue("customer.events." + event.getEventType(), event))
+                .map(BaseEvent.class::cast)
+                .toList();
+        if (direct.isEmpty()) {
+            logger.debug("📥 Queued {} customer events for async publishing", events.size());
+            return;
+        }
         try {
-            rabbitTemplate.convertAndSend(RabbitMQConfig.CRM_EVENTS_EXCHANGE, 
-                                       "customer.events." + event.getEventType(), event);
-            logger.info("📤 Published customer event: {} - Event ID: {}", event.getEventType(), event.getEventId());
+            rabbitTemplate.invoke(operations -> {
+                for (BaseEvent event : direct) {
+                    operations.convertAndSend(RabbitMQConfig.CRM_EVENTS_EXCHANGE,
+                                              "customer.events." + event.getEventType(), event);
+                }
+                return null;
+            });
+            logger.info("📤 Published {} customer events", direct.size());
         } catch (Exception e) {
-            logger.error("❌ Failed to publish customer event: {}", event.getEventType(), e);
+            logger.error("❌ Failed to publish batch of {} customer events", direct.size(), e);
         }
     }
     
@@ -35,51 +79,56 @@ public class EventPublisher {
      * Publish lead events
      */
     public void publishLeadEvent(BaseEvent event) {
-        try {
-            rabbitTemplate.convertAndSend(RabbitMQConfig.CRM_EVENTS_EXCHANGE, 
-                                       "lead.events." + event.getEventType(), event);
-            logger.info("📤 Published lead event: {} - Event ID: {}", event.getEventType(), event.getEventId());
-        } catch (Exception e) {
-            logger.error("❌ Failed to publish lead event: {}", event.getEventType(), e);
-        }
+        publish("lead", event);
     }
     
     /**
      * Publish task events
      */
     public void publishTaskEvent(BaseEvent event) {
-        try {
-            rabbitTemplate.convertAndSend(RabbitMQConfig.CRM_EVENTS_EXCHANGE, 
-                                       "task.events." + event.getEventType(), event);
-            logger.info("📤 Published task event: {} - Event ID: {}", event.getEventType(), event.getEventId());
-        } catch (Exception e) {
-            logger.error("❌ Failed to publish task event: {}", event.getEventType(), e);
-        }
+        publish("task", event);
     }
     
     /**
      * Publish opportunity events
      */
     public void publishOpportunityEvent(BaseEvent event) {
-        try {
-            rabbitTemplate.convertAndSend(RabbitMQConfig.CRM_EVENTS_EXCHANGE, 
-                                       "opportunity.events." + event.getEventType(), event);
-            logger.info("📤 Published opportunity event: {} - Event ID: {}", event.getEventType(), event.getEventId());
-        } catch (Exception e) {
-            logger.error("❌ Failed to publish opportunity event: {}", event.getEventType(), e);
-        }
+        publish("opportunity", event);
     }
     
     /**
      * Publish user events
      */
     public void publishUserEvent(BaseEvent event) {
+        publish("user", event);
+    }
+    
+    /**
+     * Route an event to "{domain}.events.{eventType}", via the outbox when enabled.
+     * Outbox failures propagate so the surrounding transaction rolls back.
+     */
+    private void publish(String domain, BaseEvent event) {
+        String routingKeyPrefix = domain + ".events.";
+        if (outboxStore != null) {
+            outboxStore.append(RabbitMQConfig.CRM_EVENTS_EXCHANGE, routingKeyPrefix, List.of(event));
+            logger.debug("📥 Queued {} event in outbox: {} - Event ID: {}", domain, event.getEventType(), event.getEventId());
+            return;
+        }
+        if (enqueue(routingKeyPrefix + event.getEventType(), event)) {
+            logger.debug("📥 Queued {} event for async publishing: {} - Event ID: {}", domain, event.getEventType(), event.getEventId());
+            return;
+        }
         try {
             rabbitTemplate.convertAndSend(RabbitMQConfig.CRM_EVENTS_EXCHANGE, 
-                                       "user.events." + event.getEventType(), event);
-            logger.info("📤 Published user event: {} - Event ID: {}", event.getEventType(), event.getEventId());
+                                       routingKeyPrefix + event.getEventType(), event);
+            logger.info("📤 Published {} event: {} - Event ID: {}", domain, event.getEventType(), event.getEventId());
         } catch (Exception e) {
-            logger.error("❌ Failed to publish user event: {}", event.getEventType(), e);
+            logger.error("❌ Failed to publish {} event: {}", domain, event.getEventType(), e);
         }
     }
-} 
\ No newline at end of file
+    
+    private boolean enqueue(String routingKey, BaseEvent event) {
+        return asyncEventDispatcher != null
+                && asyncEventDispatcher.offer(RabbitMQConfig.CRM_EVENTS_EXCHANGE, routingKey, event);
+    }
+}  
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.org.crm.common.events;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.List;
+
+/**
+ * Notification-related events for the CRM system
+ */
+public class NotificationEvents {
+    
+    /**
+     * Broadcast between notification-service instances after a commit changed the
+     * counts of the given recipients, so the other instances drop their cached counters;
+     * {@code recipients} is null when every recipient may have changed
+     */
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class RecipientCountersChangedEvent extends BaseEvent {
+        private String instanceId;
+        private List<String> recipients;
+        
+        public RecipientCountersChangedEvent() {
+            super("notification.counters.changed", "notification-service");
+        }
+        
+        public RecipientCountersChangedEvent(String instanceId, List<String> recipients) {
+            super("notification.counters.changed", "notification-service");
+            this.instanceId = instanceId;
+            this.recipients = recipients;
+        }
+    }
+    
+    /**
+     * Broadcast between notification-service instances after notifications were
+     * created, so the instances holding the recipients' push connections can send them
+     */
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class NotificationsCreatedEvent extends BaseEvent {
+        private String instanceId;
+        private List<Long> notificationIds;
+        private List<String> recipients;
+        
+        public NotificationsCreatedEvent() {
+            super("notification.created", "notification-service");
+        }
+        
+        public NotificationsCreatedEvent(String instanceId, List<Long> notificationIds, List<String> recipients) {
+            super("notification.created", "notification-service");
+            this.instanceId = instanceId;
+            this.notificationIds = notificationIds;
+            this.recipients = recipients;
+        }
+    }
+}
@@ -0,0 +1,529 @@
+package com.org.crm.common.messaging;
+
+import com.org.crm.common.events.BaseEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary encoding for {@link BaseEvent} subclasses.
+ *
+ * The schema of an event type is derived from its fields: {@code BaseEvent}
+ * fields first, then each subclass's fields sorted by name. A message is a
+ * format byte, a 4-byte schema fingerprint, a varint null bitmap and the
+ * non-null values in schema order. Integers are zigzag varints, timestamps
+ * are epoch seconds plus nanos, and canonical UUID strings (event ids) take
+ * 16 bytes. Types with fields the codec cannot represent are reported as
+ * unsupported so callers can fall back to JSON.
+ */
+public final class BinaryEventCodec {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final int MAX_FIELDS = 64;
+    private static final int UUID_STRING_LENGTH = 36;
+    private static final long MIN_EPOCH_SECOND = LocalDateTime.MIN.toEpochSecond(ZoneOffset.UTC);
+    private static final long MAX_EPOCH_SECOND = LocalDateTime.MAX.toEpochSecond(ZoneOffset.UTC);
+    private static final long MIN_EPOCH_DAY = LocalDate.MIN.toEpochDay();
+    private static final long MAX_EPOCH_DAY = LocalDate.MAX.toEpochDay();
+    private static final int MAX_NANO = 999_999_999;
+
+    private final ClassValue<Schema> schemas = new ClassValue<>() {
+        @Override
+        protected Schema computeValue(Class<?> type) {
+            return Schema.of(type);
+        }
+    };
+
+    /**
+     * Whether events of the given type can be encoded
+     */
+    public boolean supports(Class<?> type) {
+        return BaseEvent.class.isAssignableFrom(type) && schemas.get(type).supported();
+    }
+
+    public byte[] encode(BaseEvent event) {
+        Schema schema = requireSupported(event.getClass());
+        Writer out = new Writer();
+        out.writeByte(FORMAT_VERSION);
+        out.writeFixedInt(schema.fingerprint());
+
+        Object[] values = new Object[schema.fields().size()];
+        long nullBitmap = 0;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = schema.fields().get(i).get(event);
+            if (values[i] == null) {
+                nullBitmap |= 1L << i;
+            }
+        }
+        out.writeVarLong(nullBitmap);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                schema.fields().get(i).kind().write(out, values[i]);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public <T extends BaseEvent> T decode(Class<T> type, byte[] body) {
+        Schema schema = requireSupported(type);
+        Reader in = new Reader(body);
+        if (in.readByte() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported binary event format for " + type.getName());
+        }
+        if (in.readFixedInt() != schema.fingerprint()) {
+            throw new IllegalArgumentException("Binary event schema mismatch for " + type.getName());
+        }
+
+        T event = type.cast(schema.newInstance());
+        long nullBitmap = in.readVarLong();
+        for (int i = 0; i < schema.fields().size(); i++) {
+            SchemaField field = schema.fields().get(i);
+            boolean isNull = (nullBitmap & (1L << i)) != 0;
+            if (isNull) {
+                if (!field.field().getType().isPrimitive()) {
+                    field.set(event, null);
+                }
+            } else {
+                field.set(event, field.kind().read(in));
+            }
+        }
+        return event;
+    }
+
+    private Schema requireSupported(Class<?> type) {
+        Schema schema = schemas.get(type);
+        if (!schema.supported()) {
+            throw new IllegalArgumentException("Event type not supported by binary codec: " + type.getName());
+        }
+        return schema;
+    }
+
+    private record Schema(List<SchemaField> fields, int fingerprint, Constructor<?> constructor) {
+
+        static final Schema UNSUPPORTED = new Schema(List.of(), 0, null);
+
+        boolean supported() {
+            return constructor != null;
+        }
+
+        Object newInstance() {
+            try {
+                return constructor.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot instantiate " + constructor.getDeclaringClass().getName(), e);
+            }
+        }
+
+        static Schema of(Class<?> type) {
+            if (Modifier.isAbstract(type.getModifiers())) {
+                return UNSUPPORTED;
+            }
+            List<Class<?>> hierarchy = new ArrayList<>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                hierarchy.add(0, current);
+            }
+
+            List<SchemaField> fields = new ArrayList<>();
+            StringBuilder signature = new StringBuilder();
+            for (Class<?> declaring : hierarchy) {
+                List<Field> declared = new ArrayList<>();
+                for (Field field : declaring.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                        declared.add(field);
+                    }
+                }
+                declared.sort(Comparator.comparing(Field::getName));
+                for (Field field : declared) {
+                    Kind kind = Kind.of(field.getGenericType());
+                    if (kind == null) {
+                        return UNSUPPORTED;
+                    }
+                    field.setAccessible(true);
+                    fields.add(new SchemaField(field, kind));
+                    signature.append(field.getName()).append(':').append(kind.name()).append(';');
+                }
+            }
+            if (fields.size() > MAX_FIELDS) {
+                return UNSUPPORTED;
+            }
+
+            try {
+                Constructor<?> constructor = type.getDeclaredConstructor();
+                constructor.setAccessible(true);
+                CRC32 crc = new CRC32();
+                crc.update(signature.toString().getBytes(StandardCharsets.UTF_8));
+                return new Schema(List.copyOf(fields), (int) crc.getValue(), constructor);
+            } catch (NoSuchMethodException e) {
+                return UNSUPPORTED;
+            }
+        }
+    }
+
+    private record SchemaField(Field field, Kind kind) {
+
+        Object get(Object target) {
+            try {
+                return field.get(target);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot read " + field, e);
+            }
+        }
+
+        void set(Object target, Object value) {
+            try {
+                field.set(target, value);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot write " + field, e);
+            }
+        }
+    }
+
+    private enum Kind {
+        STRING {
+            @Override
+            void write(Writer out, Object value) {
+                String string = (String) value;
+                UUID uuid = asCanonicalUuid(string);
+                if (uuid != null) {
+                    out.writeVarInt(0);
+                    out.writeFixedLong(uuid.getMostSignificantBits());
+                    out.writeFixedLong(uuid.getLeastSignificantBits());
+                    return;
+                }
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                out.writeVarInt(bytes.length + 1);
+                out.writeBytes(bytes);
+            }
+
+            @Override
+            Object read(Reader in) {
+                int header = in.readVarInt();
+                if (header == 0) {
+                    return new UUID(in.readFixedLong(), in.readFixedLong()).toString();
+                }
+                return new String(in.readBytes(header - 1), StandardCharsets.UTF_8);
+            }
+        },
+        LONG {
+            @Override
+            void write(Writer out, Object value) {
+                out.writeZigZagLong((Long) value);
+            }
+
+            @Override
+            Object read(Reader in) {
+                return in.readZigZagLong();
+            }
+        },
+        INT {
+            @Override
+            void write(Writer out, Object value) {
+                out.writeZigZagLong((Integer) value);
+            }
+
+            @Override
+            Object read(Reader in) {
+                return (int) in.readZigZagLong();
+            }
+        },
+        BOOLEAN {
+            @Override
+            void write(Writer out, Object value) {
+                out.writeByte((Boolean) value ? 1 : 0);
+            }
+
+            @Override
+            Object read(Reader in) {
+                return in.readByte() != 0;
+            }
+        },
+        DOUBLE {
+            @Override
+            void write(Writer out, Object value) {
+                out.writeFixedLong(Double.doubleToRawLongBits((Double) value));
+            }
+
+            @Override
+            Object read(Reader in) {
+                return Double.longBitsToDouble(in.readFixedLong());
+            }
+        },
+        DECIMAL {
+            @Override
+            void write(Writer out, Object value) {
+                BigDecimal decimal = (BigDecimal) value;
+                out.writeZigZagLong(decimal.scale());
+                byte[] unscaled = decimal.unscaledValue().toByteArray();
+                out.writeVarInt(unscaled.length);
+                out.writeBytes(unscaled);
+            }
+
+            @Override
+            Object read(Reader in) {
+                int scale = (int) in.readZigZagLong();
+                return new BigDecimal(new BigInteger(in.readBytes(in.readVarInt())), scale);
+            }
+        },
+        DATE_TIME {
+            @Override
+            void write(Writer out, Object value) {
+                LocalDateTime dateTime = (LocalDateTime) value;
+                out.writeZigZagLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+                out.writeVarInt(dateTime.getNano());
+            }
+
+            @Override
+            Object read(Reader in) {
+                long epochSecond = in.readZigZagLong();
+                int nano = in.readVarInt();
+                // Out-of-range values would fail with DateTimeException, which callers do not treat as malformed
+                if (epochSecond < MIN_EPOCH_SECOND || epochSecond > MAX_EPOCH_SECOND || nano < 0 || nano > MAX_NANO) {
+                    throw new IllegalArgumentException("Malformed timestamp in binary event: " + epochSecond + "s " + nano + "ns");
+                }
+                return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+            }
+        },
+        DATE {
+            @Override
+            void write(Writer out, Object value) {
+                out.writeZigZagLong(((LocalDate) value).toEpochDay());
+            }
+
+            @Override
+            Object read(Reader in) {
+                long epochDay = in.readZigZagLong();
+                if (epochDay < MIN_EPOCH_DAY || epochDay > MAX_EPOCH_DAY) {
+                    throw new IllegalArgumentException("Malformed date in binary event: " + epochDay);
+                }
+                return LocalDate.ofEpochDay(epochDay);
+            }
+        },
+        LONG_LIST {
+            @Override
+            void write(Writer out, Object value) {
+                writeList(out, (List<?>) value, LONG);
+            }
+
+            @Override
+            Object read(Reader in) {
+                return readList(in, LONG);
+            }
+        },
+        STRING_LIST {
+            @Override
+            void write(Writer out, Object value) {
+                writeList(out, (List<?>) value, STRING);
+            }
+
+            @Override
+            Object read(Reader in) {
+                return readList(in, STRING);
+            }
+        };
+
+        abstract void write(Writer out, Object value);
+
+        abstract Object read(Reader in);
+
+        static Kind of(Type type) {
+            if (type == String.class) {
+                return STRING;
+            }
+            if (type == Long.class || type == long.class) {
+                return LONG;
+            }
+            if (type == Integer.class || type == int.class) {
+                return INT;
+            }
+            if (type == Boolean.class || type == boolean.class) {
+                return BOOLEAN;
+            }
+            if (type == Double.class || type == double.class) {
+                return DOUBLE;
+            }
+            if (type == BigDecimal.class) {
+                return DECIMAL;
+            }
+            if (type == LocalDateTime.class) {
+                return DATE_TIME;
+            }
+            if (type == LocalDate.class) {
+                return DATE;
+            }
+            if (type instanceof ParameterizedType parameterized && parameterized.getRawType() == List.class) {
+                Type element = parameterized.getActualTypeArguments()[0];
+                if (element == Long.class) {
+                    return LONG_LIST;
+                }
+                if (element == String.class) {
+                    return STRING_LIST;
+                }
+            }
+            return null;
+        }
+
+        private static void writeList(Writer out, List<?> list, Kind element) {
+            out.writeVarInt(list.size());
+            for (Object item : list) {
+                out.writeByte(item != null ? 1 : 0);
+                if (item != null) {
+                    element.write(out, item);
+                }
+            }
+        }
+
+        private static List<Object> readList(Reader in, Kind element) {
+            int size = in.readVarInt();
+            // Every element takes at least its null marker byte, so a larger size is malformed
+            if (size < 0 || size > in.remaining()) {
+                throw new IllegalArgumentException("Malformed list length in binary event: " + size);
+            }
+            List<Object> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(in.readByte() != 0 ? element.read(in) : null);
+            }
+            return list;
+        }
+
+        private static UUID asCanonicalUuid(String value) {
+            if (value.length() != UUID_STRING_LENGTH || value.charAt(8) != '-') {
+                return null;
+            }
+            try {
+                UUID uuid = UUID.fromString(value);
+                return uuid.toString().equals(value) ? uuid : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    private static final class Writer {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+
+        void writeByte(int value) {
+            buffer.write(value);
+        }
+
+        void writeBytes(byte[] bytes) {
+            buffer.writeBytes(bytes);
+        }
+
+        void writeFixedInt(int value) {
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                buffer.write(value >>> shift);
+            }
+        }
+
+        void writeFixedLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer.write((int) (value >>> shift));
+            }
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                buffer.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.write((int) value);
+        }
+
+        void writeZigZagLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        byte[] toByteArray() {
+            return buffer.toByteArray();
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Truncated binary event");
+            }
+            return data[position++] & 0xFF;
+        }
+
+        byte[] readBytes(int length) {
+            if (length < 0 || length > remaining()) {
+                throw new IllegalArgumentException("Truncated binary event");
+            }
+            byte[] bytes = new byte[length];
+            System.arraycopy(data, position, bytes, 0, length);
+            position += length;
+            return bytes;
+        }
+
+        int remaining() {
+            return data.length - position;
+        }
+
+        int readFixedInt() {
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                value = (value << 8) | readByte();
+            }
+            return value;
+        }
+
+        long readFixedLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | readByte();
+            }
+            return value;
+        }
+
+        int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in binary event");
+        }
+
+        long readZigZagLong() {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.org.crm.common.messaging;
+
+import com.org.crm.common.events.BaseEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Routes consumed events to typed handlers, each producing an {@code R}.
+ *
+ * The message converter already resolves the concrete event class from the
+ * type header, so dispatch is a single lookup by class in a table built once
+ * at startup. Each handler is timed under {@code crm.events.handler.latency}
+ * tagged with the consumer and event class; events without a handler go to
+ * the fallback and are counted under {@code crm.events.unhandled}.
+ */
+public final class EventDispatcher<R> {
+
+    private final Map<Class<?>, Route<R>> routes;
+    private final Function<BaseEvent, ? extends R> fallback;
+    private final Counter unhandled;
+
+    private EventDispatcher(Map<Class<?>, Route<R>> routes, Function<BaseEvent, ? extends R> fallback, Counter unhandled) {
+        this.routes = routes;
+        this.fallback = fallback;
+        this.unhandled = unhandled;
+    }
+
+    public static <R> Builder<R> builder(String consumer, MeterRegistry meterRegistry) {
+        return new Builder<>(consumer, meterRegistry);
+    }
+
+    /**
+     * Invoke the handler registered for the event's class
+     */
+    public R dispatch(BaseEvent event) {
+        Route<R> route = routes.get(event.getClass());
+        if (route == null) {
+            unhandled.increment();
+            return fallback.apply(event);
+        }
+        long start = System.nanoTime();
+        try {
+            return route.handler().apply(event);
+        } finally {
+            route.latency().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Whether a handler is registered for the given event class
+     */
+    public boolean handles(Class<? extends BaseEvent> type) {
+        return routes.containsKey(type);
+    }
+
+    private record Route<R>(Function<BaseEvent, ? extends R> handler, Timer latency) {}
+
+    public static final class Builder<R> {
+
+        private final String consumer;
+        private final MeterRegistry meterRegistry;
+        private final Map<Class<?>, Route<R>> routes = new HashMap<>();
+        private Function<BaseEvent, ? extends R> fallback = event -> null;
+
+        private Builder(String consumer, MeterRegistry meterRegistry) {
+            this.consumer = consumer;
+            this.meterRegistry = meterRegistry;
+        }
+
+        /**
+         * Register the handler for one concrete event class
+         */
+        public <T extends BaseEvent> Builder<R> on(Class<T> type, Function<? super T, ? extends R> handler) {
+            Timer latency = Timer.builder("crm.events.handler.latency")
+                    .description("Event handler execution time")
+                    .tag("consumer", consumer)
+                    .tag("event", type.getSimpleName())
+                    .register(meterRegistry);
+            Route<R> previous = routes.put(type, new Route<>(event -> handler.apply(type.cast(event)), latency));
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate handler for " + type.getName() + " in " + consumer);
+            }
+            return this;
+        }
+
+        /**
+         * Handler for events with no registered class; by default the result is null
+         */
+        public Builder<R> otherwise(Function<BaseEvent, ? extends R> fallback) {
+            this.fallback = fallback;
+            return this;
+        }
+
+        public EventDispatcher<R> build() {
+            Counter unhandled = Counter.builder("crm.events.unhandled")
+                    .description("Events consumed without a registered handler")
+                    .tag("consumer", consumer)
+                    .register(meterRegistry);
+            return new EventDispatcher<>(Map.copyOf(routes), fallback, unhandled);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.org.crm.common.messaging;
+
+import com.org.crm.common.events.BaseEvent;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * Message converter that reads both JSON and {@link BinaryEventCodec} payloads,
+ * chosen by the message content type.
+ *
+ * Outgoing events are written in the binary format only when binary output is
+ * enabled and the event type is supported by the codec; everything else stays
+ * JSON. Consumers therefore accept either format, and producers can be switched
+ * once all consumers run this converter.
+ */
+public class EventMessageConverter implements MessageConverter {
+
+    public static final String BINARY_CONTENT_TYPE = "application/x-crm-event";
+
+    private static final String EVENTS_PACKAGE = BaseEvent.class.getPackageName() + ".";
+
+    private final Jackson2JsonMessageConverter jsonConverter = new Jackson2JsonMessageConverter();
+    private final BinaryEventCodec binaryCodec = new BinaryEventCodec();
+    private final boolean binaryOutput;
+
+    public EventMessageConverter(boolean binaryOutput) {
+        this.binaryOutput = binaryOutput;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        if (binaryOutput && object instanceof BaseEvent event && binaryCodec.supports(event.getClass())) {
+            byte[] body = binaryCodec.encode(event);
+            messageProperties.setContentType(BINARY_CONTENT_TYPE);
+            messageProperties.setContentLength(body.length);
+            messageProperties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, event.getClass().getName());
+            return new Message(body, messageProperties);
+        }
+        return jsonConverter.toMessage(object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        if (properties == null || !BINARY_CONTENT_TYPE.equals(properties.getContentType())) {
+            return jsonConverter.fromMessage(message);
+        }
+        Class<? extends BaseEvent> type = resolveEventType(properties.getHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME));
+        try {
+            return binaryCodec.decode(type, message.getBody());
+        } catch (IllegalArgumentException e) {
+            throw new MessageConversionException("Failed to decode binary event " + type.getName(), e);
+        }
+    }
+
+    private Class<? extends BaseEvent> resolveEventType(Object typeId) {
+        if (!(typeId instanceof String className) || !className.startsWith(EVENTS_PACKAGE)) {
+            throw new MessageConversionException("Untrusted or missing binary event type: " + typeId);
+        }
+        try {
+            Class<?> type = Class.forName(className, false, BaseEvent.class.getClassLoader());
+            return type.asSubclass(BaseEvent.class);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new MessageConversionException("Unknown binary event type: " + className, e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.org.crm.common.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the transactional outbox when {@code crm.outbox.enabled=true}.
+ *
+ * The service must provide the {@code event_outbox} table (see
+ * {@link OutboxStore}) and enable RabbitMQ publisher confirms with
+ * {@code spring.rabbitmq.publisher-confirm-type: simple}.
+ *
+ * Events that fail {@code crm.outbox.max-attempts} times are parked in the
+ * table and counted by the {@code crm.outbox.dead} gauge. Once the cause is
+ * fixed (broker down for too long, an unknown payload type after a rollback),
+ * replay them by resetting their attempts; the relay picks them up on its next
+ * pass, in id order:
+ *
+ * <pre>
+ * UPDATE event_outbox SET attempts = 0, last_error = NULL, claimed_until = NULL
+ * WHERE sent_at IS NULL AND attempts &gt;= :maxAttempts;
+ * </pre>
+ *
+ * Rows that can never be delivered can instead be deleted after inspecting
+ * {@code last_error}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "crm.outbox", name = "enabled", havingValue = "true")
+@EnableScheduling
+public class OutboxConfig {
+}
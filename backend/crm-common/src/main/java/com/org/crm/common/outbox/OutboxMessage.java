@@ -0,0 +1,13 @@
+package com.org.crm.common.outbox;
+
+/**
+ * Pending outbox row as read by the relay
+ */
+public record OutboxMessage(
+        long id,
+        String eventId,
+        String exchange,
+        String routingKey,
+        String payloadType,
+        String payload
+) {}
@@ -0,0 +1,148 @@
+package com.org.crm.common.outbox;
+
+import com.org.crm.common.events.BaseEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes pending outbox rows to RabbitMQ.
+ *
+ * Each batch is claimed with SKIP LOCKED in a statement that commits at once,
+ * published over one channel outside any transaction, and marked sent after
+ * the broker confirms it, so several instances can run the relay concurrently
+ * without holding row locks across broker round trips. A claim that is not
+ * resolved (the instance died mid-publish) expires after {@code claim-timeout-ms}
+ * and the rows are picked up again. Delivery is at-least-once; the AMQP message
+ * id is the event id so consumers can drop duplicates.
+ *
+ * Rows that fail {@code max-attempts} times stay in the table and are no longer
+ * relayed; their number is exported as {@code crm.outbox.dead}. See
+ * {@link OutboxConfig} for how to replay them.
+ */
+@Component
+@ConditionalOnProperty(prefix = "crm.outbox", name = "enabled", havingValue = "true")
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxStore outboxStore;
+    private final RabbitTemplate rabbitTemplate;
+    private final AtomicLong deadEvents = new AtomicLong();
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long confirmTimeoutMs;
+    private final long claimTimeoutMs;
+    private final long retentionHours;
+
+    public OutboxRelay(OutboxStore outboxStore,
+                       RabbitTemplate rabbitTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${crm.outbox.batch-size:200}") int batchSize,
+                       @Value("${crm.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${crm.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMs,
+                       @Value("${crm.outbox.claim-timeout-ms:60000}") long claimTimeoutMs,
+                       @Value("${crm.outbox.retention-hours:24}") long retentionHours) {
+        this.outboxStore = outboxStore;
+        this.rabbitTemplate = rabbitTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.claimTimeoutMs = claimTimeoutMs;
+        this.retentionHours = retentionHours;
+        Gauge.builder("crm.outbox.dead", deadEvents, AtomicLong::get)
+                .description("Outbox events that used up their delivery attempts and are no longer relayed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Drain the outbox until a batch comes back short or fails
+     */
+    @Scheduled(fixedDelayString = "${crm.outbox.relay-interval-ms:500}")
+    public void relay() {
+        int published;
+        do {
+            published = relayBatch();
+        } while (published == batchSize);
+    }
+
+    /**
+     * Refresh the dead event gauge and warn while any are waiting for a replay
+     */
+    @Scheduled(fixedDelayString = "${crm.outbox.dead-check-interval-ms:60000}")
+    public void checkDead() {
+        long dead = outboxStore.countDead(maxAttempts);
+        deadEvents.set(dead);
+        if (dead > 0) {
+            log.warn("{} outbox events exceeded {} delivery attempts and are no longer relayed", dead, maxAttempts);
+        }
+    }
+
+    /**
+     * Delete sent rows older than the retention period
+     */
+    @Scheduled(fixedDelayString = "${crm.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        int purged = outboxStore.purgeSentBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (purged > 0) {
+            log.info("Purged {} sent outbox events", purged);
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxMessage> batch = outboxStore.claimPending(batchSize, maxAttempts,
+                LocalDateTime.now().plus(Duration.ofMillis(claimTimeoutMs)));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxMessage> sendable = new ArrayList<>(batch.size());
+        List<BaseEvent> events = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            try {
+                events.add(outboxStore.toEvent(message));
+                sendable.add(message);
+            } catch (Exception e) {
+                log.error("Unreadable outbox event {} ({})", message.id(), message.payloadType(), e);
+                outboxStore.markFailed(List.of(message.id()), e.getMessage());
+            }
+        }
+
+        List<Long> ids = sendable.stream().map(OutboxMessage::id).toList();
+        if (ids.isEmpty()) {
+            return batch.size();
+        }
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (int i = 0; i < sendable.size(); i++) {
+                    OutboxMessage message = sendable.get(i);
+                    operations.convertAndSend(message.exchange(), message.routingKey(), events.get(i), amqpMessage -> {
+                        amqpMessage.getMessageProperties().setMessageId(message.eventId());
+                        return amqpMessage;
+                    });
+                }
+                operations.waitForConfirmsOrDie(confirmTimeoutMs);
+                return null;
+            });
+        } catch (AmqpException e) {
+            log.warn("Failed to relay {} outbox events, will retry: {}", ids.size(), e.getMessage());
+            outboxStore.markFailed(ids, e.getMessage());
+            return 0;
+        }
+
+        outboxStore.markSent(ids);
+        log.debug("Relayed {} outbox events", ids.size());
+        return batch.size();
+    }
+}
@@ -0,0 +1,154 @@
+package com.org.crm.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.crm.common.events.BaseEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * JDBC access to the {@code event_outbox} table.
+ *
+ * Events are appended on the caller's connection, so they commit or roll back
+ * together with the business write. Expected schema (PostgreSQL):
+ *
+ * <pre>
+ * CREATE TABLE event_outbox (
+ *     id            BIGSERIAL PRIMARY KEY,
+ *     event_id      VARCHAR(64)  NOT NULL,
+ *     exchange      VARCHAR(255) NOT NULL,
+ *     routing_key   VARCHAR(255) NOT NULL,
+ *     payload_type  VARCHAR(255) NOT NULL,
+ *     payload       TEXT         NOT NULL,
+ *     created_at    TIMESTAMP    NOT NULL,
+ *     sent_at       TIMESTAMP,
+ *     attempts      INTEGER      NOT NULL DEFAULT 0,
+ *     last_error    VARCHAR(1000),
+ *     claimed_until TIMESTAMP
+ * );
+ * CREATE INDEX idx_event_outbox_pending ON event_outbox (id) WHERE sent_at IS NULL;
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty(prefix = "crm.outbox", name = "enabled", havingValue = "true")
+public class OutboxStore {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO event_outbox (event_id, exchange, routing_key, payload_type, payload, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String CLAIM_PENDING_SQL =
+            "UPDATE event_outbox SET claimed_until = ? WHERE id IN (" +
+            "SELECT id FROM event_outbox WHERE sent_at IS NULL AND attempts < ? " +
+            "AND (claimed_until IS NULL OR claimed_until < ?) ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, event_id, exchange, routing_key, payload_type, payload";
+
+    private static final String MARK_SENT_SQL = "UPDATE event_outbox SET sent_at = ?, claimed_until = NULL WHERE id = ?";
+
+    private static final String MARK_FAILED_SQL =
+            "UPDATE event_outbox SET attempts = attempts + 1, last_error = ?, claimed_until = NULL WHERE id = ?";
+
+    private static final String COUNT_DEAD_SQL =
+            "SELECT COUNT(*) FROM event_outbox WHERE sent_at IS NULL AND attempts >= ?";
+
+    private static final String PURGE_SQL = "DELETE FROM event_outbox WHERE sent_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OutboxStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Append events in the current transaction; routing key is the prefix followed by the event type
+     */
+    public void append(String exchange, String routingKeyPrefix, List<? extends BaseEvent> events) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.getEventId());
+            ps.setString(2, exchange);
+            ps.setString(3, routingKeyPrefix + event.getEventType());
+            ps.setString(4, event.getClass().getName());
+            ps.setString(5, serialize(event));
+            ps.setTimestamp(6, now);
+        });
+    }
+
+    /**
+     * Claim up to {@code limit} unsent, unclaimed rows, oldest first, until {@code claimedUntil}.
+     * The claim is one statement, so it commits on its own and no row lock outlives it; rows
+     * claimed by another relay are skipped until their claim expires.
+     */
+    public List<OutboxMessage> claimPending(int limit, int maxAttempts, LocalDateTime claimedUntil) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<OutboxMessage> claimed = new ArrayList<>(jdbcTemplate.query(CLAIM_PENDING_SQL, (rs, rowNum) -> new OutboxMessage(
+                rs.getLong("id"),
+                rs.getString("event_id"),
+                rs.getString("exchange"),
+                rs.getString("routing_key"),
+                rs.getString("payload_type"),
+                rs.getString("payload")
+        ), Timestamp.valueOf(claimedUntil), maxAttempts, now, limit));
+        // RETURNING does not preserve the subquery order
+        claimed.sort(Comparator.comparingLong(OutboxMessage::id));
+        return claimed;
+    }
+
+    /**
+     * Rebuild the event object stored in a row
+     */
+    public BaseEvent toEvent(OutboxMessage message) throws ClassNotFoundException, JsonProcessingException {
+        Class<? extends BaseEvent> type = Class.forName(message.payloadType()).asSubclass(BaseEvent.class);
+        return objectMapper.readValue(message.payload(), type);
+    }
+
+    public void markSent(List<Long> ids) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(MARK_SENT_SQL, ids, ids.size(), (ps, id) -> {
+            ps.setTimestamp(1, now);
+            ps.setLong(2, id);
+        });
+    }
+
+    public void markFailed(List<Long> ids, String error) {
+        String truncated = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        jdbcTemplate.batchUpdate(MARK_FAILED_SQL, ids, ids.size(), (ps, id) -> {
+            ps.setString(1, truncated);
+            ps.setLong(2, id);
+        });
+    }
+
+    /**
+     * Number of unsent rows that have used up their delivery attempts
+     */
+    public long countDead(int maxAttempts) {
+        Long count = jdbcTemplate.queryForObject(COUNT_DEAD_SQL, Long.class, maxAttempts);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Delete rows sent before the given time
+     */
+    public int purgeSentBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(cutoff));
+    }
+
+    private String serialize(BaseEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize event " + event.getEventType(), e);
+        }
+    }
+}
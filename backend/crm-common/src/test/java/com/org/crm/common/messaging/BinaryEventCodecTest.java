@@ -0,0 +1,269 @@
+package com.org.crm.common.messaging;
+
+import com.org.crm.common.events.BaseEvent;
+import com.org.crm.common.events.CustomerEvents;
+import com.org.crm.common.events.LeadEvents;
+import com.org.crm.common.events.NotificationEvents;
+import com.org.crm.common.events.OpportunityEvents;
+import com.org.crm.common.events.TaskEvents;
+import com.org.crm.common.events.UserRegisteredEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryEventCodecTest {
+
+    private final BinaryEventCodec codec = new BinaryEventCodec();
+
+    static Stream<Class<? extends BaseEvent>> eventTypes() {
+        List<Class<? extends BaseEvent>> types = new ArrayList<>();
+        for (Class<?> holder : List.of(CustomerEvents.class, LeadEvents.class, NotificationEvents.class,
+                OpportunityEvents.class, TaskEvents.class)) {
+            Arrays.stream(holder.getDeclaredClasses())
+                    .filter(BaseEvent.class::isAssignableFrom)
+                    .map(type -> type.asSubclass(BaseEvent.class))
+                    .forEach(types::add);
+        }
+        types.add(UserRegisteredEvent.class);
+        return types.stream();
+    }
+
+    @ParameterizedTest
+    @MethodSource("eventTypes")
+    void everyEventTypeIsSupported(Class<? extends BaseEvent> type) {
+        assertThat(codec.supports(type)).isTrue();
+    }
+
+    @ParameterizedTest
+    @MethodSource("eventTypes")
+    void roundTripsPopulatedEvent(Class<? extends BaseEvent> type) throws Exception {
+        BaseEvent event = newEvent(type);
+        populate(event);
+
+        BaseEvent decoded = codec.decode(type, codec.encode(event));
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(event);
+    }
+
+    @ParameterizedTest
+    @MethodSource("eventTypes")
+    void roundTripsEventWithAllFieldsNull(Class<? extends BaseEvent> type) throws Exception {
+        BaseEvent event = newEvent(type);
+        for (Field field : fields(type)) {
+            if (!field.getType().isPrimitive()) {
+                field.set(event, null);
+            }
+        }
+
+        BaseEvent decoded = codec.decode(type, codec.encode(event));
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(event);
+    }
+
+    @Test
+    void roundTripsNonCanonicalIdsAndListsWithNullElements() {
+        CustomerEvents.CustomersBulkUpdatedEvent event = new CustomerEvents.CustomersBulkUpdatedEvent();
+        event.setEventId("ABCDEF00-0000-0000-0000-000000000000");
+        event.setCustomerIds(Arrays.asList(1L, null, -7L, Long.MAX_VALUE));
+        event.setStatus("");
+
+        BaseEvent decoded = codec.decode(CustomerEvents.CustomersBulkUpdatedEvent.class, codec.encode(event));
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(event);
+    }
+
+    @Test
+    void rejectsUnknownFingerprint() {
+        byte[] body = codec.encode(new TaskEvents.TaskDeletedEvent());
+        body[1] ^= 0x5A;
+
+        assertThatThrownBy(() -> codec.decode(TaskEvents.TaskDeletedEvent.class, body))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("schema mismatch");
+    }
+
+    @Test
+    void rejectsBodyEncodedForAnotherType() {
+        byte[] body = codec.encode(new LeadEvents.LeadDeletedEvent());
+
+        assertThatThrownBy(() -> codec.decode(CustomerEvents.CustomerDeletedEvent.class, body))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsListLengthBeyondBody() {
+        CustomerEvents.CustomersBulkUpdatedEvent event = new CustomerEvents.CustomersBulkUpdatedEvent();
+        event.setEventId(null);
+        event.setEventType(null);
+        event.setTimestamp(null);
+        event.setSource(null);
+        event.setVersion(null);
+        event.setCustomerIds(List.of());
+        byte[] encoded = codec.encode(event);
+
+        // The empty list is the last byte (size 0); replace it with a size of one billion
+        ByteArrayOutputStream forged = new ByteArrayOutputStream();
+        forged.write(encoded, 0, encoded.length - 1);
+        forged.writeBytes(new byte[] {(byte) 0x80, (byte) 0x94, (byte) 0xEB, (byte) 0xDC, 0x03});
+
+        assertThatThrownBy(() -> codec.decode(CustomerEvents.CustomersBulkUpdatedEvent.class, forged.toByteArray()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("list length");
+    }
+
+    @Test
+    void rejectsTruncatedBody() {
+        byte[] encoded = codec.encode(new OpportunityEvents.OpportunityWonEvent(1L, "Deal", new BigDecimal("10.00"), "5"));
+
+        assertThatThrownBy(() -> codec.decode(OpportunityEvents.OpportunityWonEvent.class,
+                Arrays.copyOf(encoded, encoded.length - 3)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsOutOfRangeTimestampNanos() {
+        // Nanos of one billion, one past the largest valid value
+        byte[] forged = withTimestampBytes(0x00, 0x80, 0x94, 0xEB, 0xDC, 0x03);
+
+        assertThatThrownBy(() -> codec.decode(TaskEvents.TaskDeletedEvent.class, forged))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("timestamp");
+    }
+
+    @Test
+    void rejectsOutOfRangeTimestampSeconds() {
+        // Zigzag varint of Long.MAX_VALUE seconds, then zero nanos
+        byte[] forged = withTimestampBytes(0xFE, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x01, 0x00);
+
+        assertThatThrownBy(() -> codec.decode(TaskEvents.TaskDeletedEvent.class, forged))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("timestamp");
+    }
+
+    @Test
+    void converterRejectsMalformedTimestampAsConversionFailure() {
+        byte[] forged = withTimestampBytes(0x00, 0x80, 0x94, 0xEB, 0xDC, 0x03);
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(EventMessageConverter.BINARY_CONTENT_TYPE);
+        properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, TaskEvents.TaskDeletedEvent.class.getName());
+
+        assertThatThrownBy(() -> new EventMessageConverter(true).fromMessage(new Message(forged, properties)))
+                .isInstanceOf(MessageConversionException.class);
+    }
+
+    @Test
+    void encodesEventsInLessThanHalfTheirJsonSize() {
+        OpportunityEvents.OpportunityWonEvent event =
+                new OpportunityEvents.OpportunityWonEvent(48213L, "Annual platform renewal", new BigDecimal("125000.00"), "9127");
+
+        byte[] binary = new EventMessageConverter(true).toMessage(event, new MessageProperties()).getBody();
+        byte[] json = new EventMessageConverter(false).toMessage(event, new MessageProperties()).getBody();
+
+        assertThat(binary.length)
+                .as("binary %d bytes vs JSON %d bytes", binary.length, json.length)
+                .isLessThan(json.length / 2);
+    }
+
+    /**
+     * A TaskDeletedEvent whose only non-null field is the timestamp, with the timestamp bytes replaced
+     */
+    private byte[] withTimestampBytes(int... timestamp) {
+        TaskEvents.TaskDeletedEvent event = new TaskEvents.TaskDeletedEvent();
+        event.setEventId(null);
+        event.setEventType(null);
+        event.setSource(null);
+        event.setVersion(null);
+        event.setTimestamp(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC));
+        byte[] encoded = codec.encode(event);
+
+        // Epoch second 0 and nano 0 encode as the last two bytes
+        ByteArrayOutputStream forged = new ByteArrayOutputStream();
+        forged.write(encoded, 0, encoded.length - 2);
+        for (int b : timestamp) {
+            forged.write(b);
+        }
+        return forged.toByteArray();
+    }
+
+    private static BaseEvent newEvent(Class<? extends BaseEvent> type) throws Exception {
+        var constructor = type.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        return constructor.newInstance();
+    }
+
+    private static List<Field> fields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static void populate(BaseEvent event) throws IllegalAccessException {
+        long seed = 1;
+        for (Field field : fields(event.getClass())) {
+            field.set(event, sample(field, seed++));
+        }
+    }
+
+    private static Object sample(Field field, long seed) {
+        Class<?> type = field.getType();
+        if (type == String.class) {
+            return field.getName().equals("eventId") ? "3f2b8c1e-9d4a-4e6b-8f7c-2a1d0e9b8c7a" : field.getName() + " ünïcødé " + seed;
+        }
+        if (type == Long.class || type == long.class) {
+            return seed % 2 == 0 ? -seed * 1_000_003L : seed * 1_000_003L;
+        }
+        if (type == Integer.class || type == int.class) {
+            return (int) -seed;
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return seed % 2 == 0;
+        }
+        if (type == Double.class || type == double.class) {
+            return seed / 3.0;
+        }
+        if (type == BigDecimal.class) {
+            return new BigDecimal("-123456789012345.67").add(BigDecimal.valueOf(seed));
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.of(2024, 2, 29, 23, 59, 58, 123_456_789).plusDays(seed);
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.of(1969, 12, 31).plusDays(seed);
+        }
+        if (type == List.class) {
+            var element = ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
+            if (element == Long.class) {
+                return Arrays.asList(seed, null, -seed);
+            }
+            return Arrays.asList("a" + seed, null, "");
+        }
+        throw new IllegalArgumentException("No sample value for " + field);
+    }
+}
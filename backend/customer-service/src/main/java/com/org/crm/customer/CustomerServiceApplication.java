@@ -4,6 +4,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Customer Service Application
@@ -16,6 +17,7 @@ import org.springframework.cache.annotation.EnableCaching;
 @SpringBootApplication(scanBasePackages = {"com.org.crm.common", "com.org.crm.customer"})
 @EnableDiscoveryClient
 @EnableCaching
+@EnableScheduling
 public class CustomerServiceApplication {
 
     public static void main(String[] args) {
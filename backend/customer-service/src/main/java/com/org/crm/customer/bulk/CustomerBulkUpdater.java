@@ -0,0 +1,139 @@
+package com.org.crm.customer.bulk;
+
+import com.org.crm.common.events.CustomerEvents;
+import com.org.crm.common.events.EventPublisher;
+import com.org.crm.customer.cache.CustomerCache;
+import com.org.crm.customer.exception.GlobalExceptionHandler;
+import com.org.crm.customer.model.Customer;
+import com.org.crm.customer.repository.CustomerRepository;
+import com.org.crm.customer.service.CustomerService;
+import com.org.crm.customer.statistics.CustomerCounterStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Set-based bulk changes to customer status, assignment and last contact date.
+ *
+ * Target ids come either from an explicit list or from a status/assignee filter
+ * walked in id order. Each chunk is updated with a single UPDATE in its own short
+ * transaction and announced with one CustomersBulkUpdatedEvent. When the status
+ * changes, the chunk's rows are locked before their status/source mix is counted
+ * for the counters, so a concurrent single-customer change cannot slip in between.
+ */
+@Component
+@Slf4j
+public class CustomerBulkUpdater {
+
+    private final CustomerRepository customerRepository;
+    private final CustomerCounterStore customerCounterStore;
+    private final CustomerCache customerCache;
+    private final EventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public CustomerBulkUpdater(CustomerRepository customerRepository,
+                               CustomerCounterStore customerCounterStore,
+                               CustomerCache customerCache,
+                               EventPublisher eventPublisher,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${crm.customer.bulk.chunk-size:500}") int chunkSize) {
+        this.customerRepository = customerRepository;
+        this.customerCounterStore = customerCounterStore;
+        this.customerCache = customerCache;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Apply the requested changes to every matching customer
+     */
+    public CustomerService.BulkUpdateResult update(CustomerService.BulkUpdateRequest request) {
+        validate(request);
+        LocalDateTime lastContactDate = Boolean.TRUE.equals(request.touchLastContact()) ? LocalDateTime.now() : null;
+
+        long updated = 0;
+        int chunks = 0;
+        if (request.ids() != null && !request.ids().isEmpty()) {
+            List<Long> ids = request.ids().stream().distinct().toList();
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                updated += updateChunk(chunk, request, lastContactDate);
+                chunks++;
+            }
+        } else {
+            long afterId = 0L;
+            while (true) {
+                List<Long> chunk = nextFilteredChunk(request, afterId);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                updated += updateChunk(chunk, request, lastContactDate);
+                chunks++;
+                afterId = chunk.get(chunk.size() - 1);
+            }
+        }
+
+        log.info("Bulk update finished: {} customers updated in {} chunks", updated, chunks);
+        return new CustomerService.BulkUpdateResult(updated, chunks);
+    }
+
+    private List<Long> nextFilteredChunk(CustomerService.BulkUpdateRequest request, long afterId) {
+        PageRequest page = PageRequest.of(0, chunkSize);
+        if (request.filterStatus() != null && request.filterAssignedTo() != null) {
+            return customerRepository.findIdsForBulkUpdateByStatusAndAssignedTo(
+                    request.filterStatus(), request.filterAssignedTo(), afterId, page);
+        }
+        if (request.filterStatus() != null) {
+            return customerRepository.findIdsForBulkUpdateByStatus(request.filterStatus(), afterId, page);
+        }
+        return customerRepository.findIdsForBulkUpdateByAssignedTo(request.filterAssignedTo(), afterId, page);
+    }
+
+    private void validate(CustomerService.BulkUpdateRequest request) {
+        boolean hasTargets = (request.ids() != null && !request.ids().isEmpty())
+                || request.filterStatus() != null || request.filterAssignedTo() != null;
+        if (!hasTargets) {
+            throw new GlobalExceptionHandler.InvalidBulkUpdateException(
+                    "Bulk update requires ids or at least one filter (filterStatus, filterAssignedTo)");
+        }
+        boolean hasChanges = request.status() != null || request.assignedTo() != null
+                || Boolean.TRUE.equals(request.touchLastContact());
+        if (!hasChanges) {
+            throw new GlobalExceptionHandler.InvalidBulkUpdateException(
+                    "Bulk update requires at least one change (status, assignedTo, touchLastContact)");
+        }
+    }
+
+    private int updateChunk(List<Long> ids, CustomerService.BulkUpdateRequest request, LocalDateTime lastContactDate) {
+        Integer count = transactionTemplate.execute(status -> {
+            if (request.status() != null) {
+                // Lock first so the counted statuses are the ones the UPDATE replaces
+                customerRepository.lockByIds(ids);
+                for (Object[] row : customerRepository.countGroupByStatusAndSourceForIds(ids)) {
+                    customerCounterStore.recordChanged(
+                            (Customer.CustomerStatus) row[0], (Customer.CustomerSource) row[1],
+                            request.status(), (Customer.CustomerSource) row[1], ((Number) row[2]).longValue());
+                }
+            }
+            int updated = customerRepository.bulkUpdate(ids, request.status(), request.assignedTo(),
+                    lastContactDate, LocalDateTime.now());
+            eventPublisher.publishCustomerEvent(new CustomerEvents.CustomersBulkUpdatedEvent(
+                    List.copyOf(ids),
+                    request.status() != null ? request.status().name() : null,
+                    request.assignedTo(),
+                    lastContactDate
+            ));
+            return updated;
+        });
+
+        customerCache.evictAll(ids);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,133 @@
+package com.org.crm.customer.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.org.crm.customer.service.CustomerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, in-process read-through cache of customers by id, with an
+ * email to id secondary index.
+ *
+ * Backed by Caffeine (W-TinyLFU eviction). Entries are evicted after local
+ * writes commit and when customer events from other instances arrive; the
+ * write TTL bounds staleness for changes that publish no event.
+ */
+@Component
+@Slf4j
+public class CustomerCache {
+
+    private final Cache<Long, CustomerService.CustomerResponse> customersById;
+    private final Cache<String, Long> idsByEmail;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CustomerCache(MeterRegistry meterRegistry,
+                         @Value("${crm.customer.cache.maximum-size:50000}") long maximumSize,
+                         @Value("${crm.customer.cache.expire-after-write-ms:600000}") long expireAfterWriteMs) {
+        this.customersById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, customersById, "customers.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByEmail, "customers.id-by-email");
+    }
+
+    /**
+     * Look up a customer by id, loading and caching it on a miss. The load runs inside
+     * the cache's per-key computation, so an eviction racing it waits for the load and
+     * then removes whatever it produced.
+     */
+    public Optional<CustomerService.CustomerResponse> getById(Long id,
+                                                              Function<Long, Optional<CustomerService.CustomerResponse>> loader) {
+        CustomerService.CustomerResponse customer = customersById.get(id, key -> loader.apply(key).orElse(null));
+        if (customer != null) {
+            idsByEmail.put(customer.email(), customer.id());
+        }
+        return Optional.ofNullable(customer);
+    }
+
+    /**
+     * Look up a customer by email through the secondary index, loading and caching it on a miss
+     */
+    public Optional<CustomerService.CustomerResponse> getByEmail(String email,
+                                                                 Function<String, Optional<CustomerService.CustomerResponse>> loader) {
+        Long id = idsByEmail.getIfPresent(email);
+        if (id != null) {
+            CustomerService.CustomerResponse cached = customersById.getIfPresent(id);
+            if (cached != null && email.equals(cached.email())) {
+                return Optional.of(cached);
+            }
+        }
+        long generation = evictions.get();
+        Optional<CustomerService.CustomerResponse> loaded = loader.apply(email);
+        loaded.ifPresent(customer -> putUnlessEvicted(customer, generation));
+        return loaded;
+    }
+
+    /**
+     * Evict a customer now
+     */
+    public void evict(Long id) {
+        evictions.incrementAndGet();
+        CustomerService.CustomerResponse previous = customersById.getIfPresent(id);
+        customersById.invalidate(id);
+        if (previous != null) {
+            idsByEmail.invalidate(previous.email());
+        }
+    }
+
+    /**
+     * Evict several customers now
+     */
+    public void evictAll(Collection<Long> ids) {
+        for (Long id : ids) {
+            evict(id);
+        }
+    }
+
+    /**
+     * Evict a customer once the surrounding transaction commits (and immediately, so
+     * readers inside the transaction do not see a stale entry)
+     */
+    public void evictAfterCommit(Long id) {
+        evict(id);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(id);
+            }
+        });
+    }
+
+    /**
+     * Cache a customer loaded outside the per-key computation, unless an eviction started
+     * after the load began. The check runs inside the entry's compute, which evict's
+     * invalidate serializes against, so a stale row can never land after an eviction.
+     */
+    private void putUnlessEvicted(CustomerService.CustomerResponse customer, long generation) {
+        customersById.asMap().compute(customer.id(),
+                (key, current) -> evictions.get() == generation ? customer : current);
+        idsByEmail.put(customer.email(), customer.id());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.org.crm.customer.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Messaging setup for cross-instance customer cache invalidation.
+ * Every instance gets its own auto-delete queue receiving all customer events.
+ */
+@Configuration
+public class CustomerCacheConfig {
+
+    public static final String CUSTOMER_CACHE_INVALIDATION_ROUTING_KEY = "customer.events.#";
+
+    @Bean
+    public Queue customerCacheInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding customerCacheInvalidationBinding(Queue customerCacheInvalidationQueue, TopicExchange crmEventsExchange) {
+        return BindingBuilder
+                .bind(customerCacheInvalidationQueue)
+                .to(crmEventsExchange)
+                .with(CUSTOMER_CACHE_INVALIDATION_ROUTING_KEY);
+    }
+}
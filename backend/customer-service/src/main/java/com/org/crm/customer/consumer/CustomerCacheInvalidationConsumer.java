@@ -0,0 +1,34 @@
+package com.org.crm.customer.consumer;
+
+import com.org.crm.common.events.BaseEvent;
+import com.org.crm.common.events.CustomerEvents;
+import com.org.crm.customer.cache.CustomerCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts cached customers when any instance publishes a customer change
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerCacheInvalidationConsumer {
+
+    private final CustomerCache customerCache;
+
+    @RabbitListener(queues = "#{customerCacheInvalidationQueue.name}")
+    public void handleCustomerEvent(BaseEvent event) {
+        if (event instanceof CustomerEvents.CustomerUpdatedEvent updated) {
+            customerCache.evict(updated.getCustomerId());
+        } else if (event instanceof CustomerEvents.CustomerDeletedEvent deleted) {
+            customerCache.evict(deleted.getCustomerId());
+        } else if (event instanceof CustomerEvents.CustomersBulkUpdatedEvent bulkUpdated) {
+            customerCache.evictAll(bulkUpdated.getCustomerIds());
+        } else {
+            return;
+        }
+        log.debug("Evicted cached customers for event: {} - ID: {}", event.getEventType(), event.getEventId());
+    }
+}
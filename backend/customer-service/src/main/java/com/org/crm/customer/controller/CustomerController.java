@@ -1,5 +1,7 @@
 package com.org.crm.customer.controller;
 
+import com.org.crm.customer.export.CustomerExportFormat;
+import com.org.crm.customer.importer.CustomerImportFormat;
 import com.org.crm.customer.model.Customer;
 import com.org.crm.customer.service.CustomerService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,14 +14,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST Controller for Customer operations
@@ -43,6 +51,18 @@ public class CustomerController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/import")
+    @Operation(summary = "Bulk import customers", description = "Imports customers from a CSV (with header row) or NDJSON request body in batches, reporting rejected rows")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER')")
+    public ResponseEntity<CustomerService.ImportResult> importCustomers(
+            @Parameter(description = "Import format") @RequestParam(defaultValue = "CSV") CustomerImportFormat format,
+            @Parameter(description = "Rows per insert batch") @RequestParam(required = false) Integer batchSize,
+            InputStream body) throws IOException {
+        log.info("Importing customers from {} body", format);
+        CustomerService.ImportResult result = customerService.importCustomers(format, body, batchSize);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get customer by ID", description = "Retrieves a customer by their ID")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER') or hasRole('SALES_REP')")
@@ -99,7 +119,7 @@ public class CustomerController {
     @GetMapping
     @Operation(summary = "Get all customers", description = "Retrieves all customers with pagination and sorting")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER') or hasRole('SALES_REP')")
-    public ResponseEntity<Page<CustomerService.CustomerResponse>> getAllCustomers(
+    public ResponseEntity<Page<CustomerService.CustomerSummary>> getAllCustomers(
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "createdAt") String sortBy,
@@ -109,76 +129,114 @@ public class CustomerController {
         
         Sort sort = Sort.by(Sort.Direction.fromString(sortDir), sortBy);
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<CustomerService.CustomerResponse> customers = customerService.getAllCustomers(pageable);
+        Page<CustomerService.CustomerSummary> customers = customerService.getAllCustomers(pageable);
         return ResponseEntity.ok(customers);
     }
 
     @GetMapping("/search")
     @Operation(summary = "Search customers", description = "Searches customers by name, email, or company")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER') or hasRole('SALES_REP')")
-    public ResponseEntity<Page<CustomerService.CustomerResponse>> searchCustomers(
+    public ResponseEntity<Page<CustomerService.CustomerSummary>> searchCustomers(
             @Parameter(description = "Search term") @RequestParam String searchTerm,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
         log.debug("Searching customers with term: {}", searchTerm);
         Pageable pageable = PageRequest.of(page, size);
-        Page<CustomerService.CustomerResponse> customers = customerService.searchCustomers(searchTerm, pageable);
+        Page<CustomerService.CustomerSummary> customers = customerService.searchCustomers(searchTerm, pageable);
         return ResponseEntity.ok(customers);
     }
 
     @GetMapping("/status/{status}")
     @Operation(summary = "Get customers by status", description = "Retrieves customers filtered by status")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER') or hasRole('SALES_REP')")
-    public ResponseEntity<Page<CustomerService.CustomerResponse>> getCustomersByStatus(
+    public ResponseEntity<Page<CustomerService.CustomerSummary>> getCustomersByStatus(
             @Parameter(description = "Customer status") @PathVariable Customer.CustomerStatus status,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
         log.debug("Fetching customers by status: {}", status);
         Pageable pageable = PageRequest.of(page, size);
-        Page<CustomerService.CustomerResponse> customers = customerService.getCustomersByStatus(status, pageable);
+        Page<CustomerService.CustomerSummary> customers = customerService.getCustomersByStatus(status, pageable);
         return ResponseEntity.ok(customers);
     }
 
     @GetMapping("/assigned/{assignedTo}")
     @Operation(summary = "Get customers by assigned user", description = "Retrieves customers assigned to a specific user")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER') or hasRole('SALES_REP')")
-    public ResponseEntity<Page<CustomerService.CustomerResponse>> getCustomersByAssignedTo(
+    public ResponseEntity<Page<CustomerService.CustomerSummary>> getCustomersByAssignedTo(
             @Parameter(description = "Assigned user") @PathVariable String assignedTo,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
         log.debug("Fetching customers assigned to: {}", assignedTo);
         Pageable pageable = PageRequest.of(page, size);
-        Page<CustomerService.CustomerResponse> customers = customerService.getCustomersByAssignedTo(assignedTo, pageable);
+        Page<CustomerService.CustomerSummary> customers = customerService.getCustomersByAssignedTo(assignedTo, pageable);
+        return ResponseEntity.ok(customers);
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "Get all customers (keyset)", description = "Retrieves customers newest first using an opaque continuation cursor")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER') or hasRole('SALES_REP')")
+    public ResponseEntity<CustomerService.CustomerSlice> getAllCustomersByCursor(
+            @Parameter(description = "Continuation cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most 200 by default") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Include total count (see totalApproximate)") @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.debug("Fetching all customers with cursor: {}, size: {}", cursor, size);
+        CustomerService.CustomerSlice customers = customerService.getAllCustomers(cursor, size, includeTotal);
+        return ResponseEntity.ok(customers);
+    }
+
+    @GetMapping("/status/{status}/cursor")
+    @Operation(summary = "Get customers by status (keyset)", description = "Retrieves customers filtered by status using an opaque continuation cursor")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER') or hasRole('SALES_REP')")
+    public ResponseEntity<CustomerService.CustomerSlice> getCustomersByStatusAndCursor(
+            @Parameter(description = "Customer status") @PathVariable Customer.CustomerStatus status,
+            @Parameter(description = "Continuation cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most 200 by default") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Include total count (see totalApproximate)") @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.debug("Fetching customers by status: {} with cursor: {}", status, cursor);
+        CustomerService.CustomerSlice customers = customerService.getCustomersByStatus(status, cursor, size, includeTotal);
+        return ResponseEntity.ok(customers);
+    }
+
+    @GetMapping("/assigned/{assignedTo}/cursor")
+    @Operation(summary = "Get customers by assigned user (keyset)", description = "Retrieves customers assigned to a user using an opaque continuation cursor")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER') or hasRole('SALES_REP')")
+    public ResponseEntity<CustomerService.CustomerSlice> getCustomersByAssignedToAndCursor(
+            @Parameter(description = "Assigned user") @PathVariable String assignedTo,
+            @Parameter(description = "Continuation cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most 200 by default") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Include total count (see totalApproximate)") @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.debug("Fetching customers assigned to: {} with cursor: {}", assignedTo, cursor);
+        CustomerService.CustomerSlice customers = customerService.getCustomersByAssignedTo(assignedTo, cursor, size, includeTotal);
         return ResponseEntity.ok(customers);
     }
 
     @GetMapping("/company/{company}")
     @Operation(summary = "Get customers by company", description = "Retrieves customers by company name")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER') or hasRole('SALES_REP')")
-    public ResponseEntity<List<CustomerService.CustomerResponse>> getCustomersByCompany(
+    public ResponseEntity<List<CustomerService.CustomerSummary>> getCustomersByCompany(
             @Parameter(description = "Company name") @PathVariable String company) {
         log.debug("Fetching customers by company: {}", company);
-        List<CustomerService.CustomerResponse> customers = customerService.getCustomersByCompany(company);
+        List<CustomerService.CustomerSummary> customers = customerService.getCustomersByCompany(company);
         return ResponseEntity.ok(customers);
     }
 
     @GetMapping("/source/{source}")
     @Operation(summary = "Get customers by source", description = "Retrieves customers by acquisition source")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER') or hasRole('SALES_REP')")
-    public ResponseEntity<List<CustomerService.CustomerResponse>> getCustomersBySource(
+    public ResponseEntity<List<CustomerService.CustomerSummary>> getCustomersBySource(
             @Parameter(description = "Customer source") @PathVariable Customer.CustomerSource source) {
         log.debug("Fetching customers by source: {}", source);
-        List<CustomerService.CustomerResponse> customers = customerService.getCustomersBySource(source);
+        List<CustomerService.CustomerSummary> customers = customerService.getCustomersBySource(source);
         return ResponseEntity.ok(customers);
     }
 
     @GetMapping("/no-contact/{days}")
     @Operation(summary = "Get customers with no recent contact", description = "Retrieves customers with no contact in the specified number of days")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER') or hasRole('SALES_REP')")
-    public ResponseEntity<List<CustomerService.CustomerResponse>> getCustomersWithNoRecentContact(
+    public ResponseEntity<List<CustomerService.CustomerSummary>> getCustomersWithNoRecentContact(
             @Parameter(description = "Number of days") @PathVariable int days) {
         log.debug("Fetching customers with no contact in last {} days", days);
-        List<CustomerService.CustomerResponse> customers = customerService.getCustomersWithNoRecentContact(days);
+        List<CustomerService.CustomerSummary> customers = customerService.getCustomersWithNoRecentContact(days);
         return ResponseEntity.ok(customers);
     }
 
@@ -214,6 +272,16 @@ public class CustomerController {
         }
     }
 
+    @PatchMapping("/bulk")
+    @Operation(summary = "Bulk update customers", description = "Updates status, assignment and/or last contact date for customers selected by ids or filter")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER')")
+    public ResponseEntity<CustomerService.BulkUpdateResult> bulkUpdateCustomers(
+            @RequestBody CustomerService.BulkUpdateRequest request) {
+        log.info("Bulk updating customers: {}", request);
+        CustomerService.BulkUpdateResult result = customerService.bulkUpdateCustomers(request);
+        return ResponseEntity.ok(result);
+    }
+
     @PatchMapping("/{id}/contact")
     @Operation(summary = "Update last contact date", description = "Updates the last contact date for a customer")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER') or hasRole('SALES_REP')")
@@ -241,48 +309,78 @@ public class CustomerController {
     @GetMapping("/top-revenue")
     @Operation(summary = "Get top customers by revenue", description = "Retrieves customers ordered by revenue")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER')")
-    public ResponseEntity<Page<CustomerService.CustomerResponse>> getTopCustomersByRevenue(
+    public ResponseEntity<Page<CustomerService.CustomerSummary>> getTopCustomersByRevenue(
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size) {
         log.debug("Fetching top customers by revenue");
         Pageable pageable = PageRequest.of(page, size);
-        Page<CustomerService.CustomerResponse> customers = customerService.getTopCustomersByRevenue(pageable);
+        Page<CustomerService.CustomerSummary> customers = customerService.getTopCustomersByRevenue(pageable);
         return ResponseEntity.ok(customers);
     }
 
     @GetMapping("/city/{city}")
     @Operation(summary = "Get customers by city", description = "Retrieves customers by city")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER') or hasRole('SALES_REP')")
-    public ResponseEntity<List<CustomerService.CustomerResponse>> getCustomersByCity(
+    public ResponseEntity<List<CustomerService.CustomerSummary>> getCustomersByCity(
             @Parameter(description = "City name") @PathVariable String city) {
         log.debug("Fetching customers by city: {}", city);
-        List<CustomerService.CustomerResponse> customers = customerService.getCustomersByCity(city);
+        List<CustomerService.CustomerSummary> customers = customerService.getCustomersByCity(city);
         return ResponseEntity.ok(customers);
     }
 
     @GetMapping("/country/{country}")
     @Operation(summary = "Get customers by country", description = "Retrieves customers by country")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER') or hasRole('SALES_REP')")
-    public ResponseEntity<List<CustomerService.CustomerResponse>> getCustomersByCountry(
+    public ResponseEntity<List<CustomerService.CustomerSummary>> getCustomersByCountry(
             @Parameter(description = "Country name") @PathVariable String country) {
         log.debug("Fetching customers by country: {}", country);
-        List<CustomerService.CustomerResponse> customers = customerService.getCustomersByCountry(country);
+        List<CustomerService.CustomerSummary> customers = customerService.getCustomersByCountry(country);
         return ResponseEntity.ok(customers);
     }
 
     @GetMapping("/date-range")
     @Operation(summary = "Get customers by date range", description = "Retrieves customers created within a date range")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER')")
-    public ResponseEntity<List<CustomerService.CustomerResponse>> getCustomersByDateRange(
+    public ResponseEntity<List<CustomerService.CustomerSummary>> getCustomersByDateRange(
             @Parameter(description = "Start date (ISO format)") @RequestParam String startDate,
             @Parameter(description = "End date (ISO format)") @RequestParam String endDate) {
         log.debug("Fetching customers created between {} and {}", startDate, endDate);
         LocalDateTime start = LocalDateTime.parse(startDate);
         LocalDateTime end = LocalDateTime.parse(endDate);
-        List<CustomerService.CustomerResponse> customers = customerService.getCustomersByDateRange(start, end);
+        List<CustomerService.CustomerSummary> customers = customerService.getCustomersByDateRange(start, end);
         return ResponseEntity.ok(customers);
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export customers", description = "Streams customers as NDJSON or CSV, optionally filtered and gzip-compressed")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER')")
+    public ResponseEntity<StreamingResponseBody> exportCustomers(
+            @Parameter(description = "Export format") @RequestParam(defaultValue = "NDJSON") CustomerExportFormat format,
+            @Parameter(description = "Customer status") @RequestParam(required = false) Customer.CustomerStatus status,
+            @Parameter(description = "Customer source") @RequestParam(required = false) Customer.CustomerSource source,
+            @Parameter(description = "Gzip-compress the response") @RequestParam(defaultValue = "false") boolean gzip) {
+        log.info("Exporting customers as {} (status: {}, source: {}, gzip: {})", format, status, source, gzip);
+
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, 8192);
+                customerService.exportCustomers(format, status, source, gzipStream);
+                gzipStream.finish();
+            } else {
+                customerService.exportCustomers(format, status, source, outputStream);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"customers." + format.getFileExtension() + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @GetMapping("/check-email/{email}")
     @Operation(summary = "Check if email exists", description = "Checks if a customer with the given email exists")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SALES_MANAGER') or hasRole('SALES_REP')")
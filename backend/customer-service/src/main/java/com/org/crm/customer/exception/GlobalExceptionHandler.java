@@ -91,6 +91,54 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
     }
 
+    /**
+     * Handle invalid pagination cursor exceptions
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursorException(InvalidCursorException ex) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error("Bad Request")
+                .message(ex.getMessage())
+                .build();
+
+        log.warn("Invalid cursor: {}", ex.getMessage());
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
+    /**
+     * Handle invalid page size exceptions
+     */
+    @ExceptionHandler(InvalidPageSizeException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidPageSizeException(InvalidPageSizeException ex) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error("Bad Request")
+                .message(ex.getMessage())
+                .build();
+
+        log.warn("Invalid page size: {}", ex.getMessage());
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
+    /**
+     * Handle invalid bulk update request exceptions
+     */
+    @ExceptionHandler(InvalidBulkUpdateException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidBulkUpdateException(InvalidBulkUpdateException ex) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error("Bad Request")
+                .message(ex.getMessage())
+                .build();
+
+        log.warn("Invalid bulk update: {}", ex.getMessage());
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
     /**
      * Handle generic exceptions
      */
@@ -125,6 +173,33 @@ public class GlobalExceptionHandler {
         }
     }
 
+    /**
+     * Custom exception for an unreadable pagination cursor
+     */
+    public static class InvalidCursorException extends RuntimeException {
+        public InvalidCursorException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Custom exception for a page size below one
+     */
+    public static class InvalidPageSizeException extends RuntimeException {
+        public InvalidPageSizeException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Custom exception for a bulk update without targets or changes
+     */
+    public static class InvalidBulkUpdateException extends RuntimeException {
+        public InvalidBulkUpdateException(String message) {
+            super(message);
+        }
+    }
+
     /**
      * Error response DTO
      */
@@ -0,0 +1,93 @@
+package com.org.crm.customer.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.crm.customer.service.CustomerService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes customers one row at a time to an output stream as NDJSON or CSV.
+ * Nothing is retained between rows, so memory use does not depend on row count.
+ */
+public class CustomerExportWriter {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private static final String[] CSV_COLUMNS = {
+            "id", "firstName", "lastName", "email", "phone", "company", "jobTitle", "address",
+            "city", "state", "country", "postalCode", "website", "notes", "status", "source",
+            "assignedTo", "createdAt", "updatedAt", "lastContactDate", "totalOrders", "totalRevenue"
+    };
+
+    private final CustomerExportFormat format;
+    private final ObjectMapper objectMapper;
+    private final Writer writer;
+
+    public CustomerExportWriter(CustomerExportFormat format, ObjectMapper objectMapper, OutputStream outputStream) {
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Write the format header, if any
+     */
+    public void writeHeader() throws IOException {
+        if (format == CustomerExportFormat.CSV) {
+            writer.write(String.join(",", CSV_COLUMNS));
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Write a single customer
+     */
+    public void write(CustomerService.CustomerResponse customer) throws IOException {
+        if (format == CustomerExportFormat.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(customer));
+        } else {
+            writeCsvRow(customer);
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Flush buffered rows to the underlying stream without closing it
+     */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeCsvRow(CustomerService.CustomerResponse c) throws IOException {
+        Object[] values = {
+                c.id(), c.firstName(), c.lastName(), c.email(), c.phone(), c.company(), c.jobTitle(), c.address(),
+                c.city(), c.state(), c.country(), c.postalCode(), c.website(), c.notes(), c.status(), c.source(),
+                c.assignedTo(), c.createdAt(), c.updatedAt(), c.lastContactDate(), c.totalOrders(), c.totalRevenue()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writeCsvValue(values[i].toString());
+            }
+        }
+    }
+
+    private void writeCsvValue(String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
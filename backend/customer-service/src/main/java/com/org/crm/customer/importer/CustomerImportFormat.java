@@ -0,0 +1,9 @@
+package com.org.crm.customer.importer;
+
+/**
+ * Supported bulk import formats
+ */
+public enum CustomerImportFormat {
+    NDJSON,
+    CSV
+}
@@ -0,0 +1,188 @@
+package com.org.crm.customer.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.crm.customer.model.Customer;
+import com.org.crm.customer.service.CustomerService;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads customer import rows one at a time from a CSV or NDJSON stream.
+ *
+ * CSV input must start with a header row naming {@link CustomerService.CreateCustomerRequest}
+ * fields; unknown columns are ignored. Rows that cannot be parsed are returned
+ * with an error instead of aborting the read.
+ */
+class CustomerImportReader implements Closeable {
+
+    /**
+     * A parsed row: either a request or the reason it could not be read
+     */
+    record Row(long number, CustomerService.CreateCustomerRequest request, String error) {}
+
+    private final CustomerImportFormat format;
+    private final ObjectMapper objectMapper;
+    private final BufferedReader reader;
+    private Map<String, Integer> columns;
+    private long rowNumber;
+
+    CustomerImportReader(CustomerImportFormat format, ObjectMapper objectMapper, InputStream inputStream) {
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read the next row, or null at end of input
+     */
+    Row next() throws IOException {
+        return format == CustomerImportFormat.NDJSON ? nextJson() : nextCsv();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Row nextJson() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        rowNumber++;
+        try {
+            return new Row(rowNumber, objectMapper.readValue(line, CustomerService.CreateCustomerRequest.class), null);
+        } catch (JsonProcessingException e) {
+            return new Row(rowNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Row nextCsv() throws IOException {
+        if (columns == null) {
+            List<String> header = readCsvRecord();
+            if (header == null) {
+                return null;
+            }
+            columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim(), i);
+            }
+        }
+
+        List<String> values;
+        do {
+            values = readCsvRecord();
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0).isBlank());
+
+        rowNumber++;
+        try {
+            return new Row(rowNumber, toRequest(values), null);
+        } catch (IllegalArgumentException e) {
+            return new Row(rowNumber, null, e.getMessage());
+        }
+    }
+
+    private CustomerService.CreateCustomerRequest toRequest(List<String> values) {
+        String status = value(values, "status");
+        String source = value(values, "source");
+        return new CustomerService.CreateCustomerRequest(
+                value(values, "firstName"),
+                value(values, "lastName"),
+                value(values, "email"),
+                value(values, "phone"),
+                value(values, "company"),
+                value(values, "jobTitle"),
+                value(values, "address"),
+                value(values, "city"),
+                value(values, "state"),
+                value(values, "country"),
+                value(values, "postalCode"),
+                value(values, "website"),
+                value(values, "notes"),
+                status != null ? parseEnum(Customer.CustomerStatus.class, "status", status) : null,
+                source != null ? parseEnum(Customer.CustomerSource.class, "source", source) : null,
+                value(values, "assignedTo")
+        );
+    }
+
+    private String value(List<String> values, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String column, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    /**
+     * Read one RFC 4180 record; quoted fields may contain commas, quotes and line breaks
+     */
+    private List<String> readCsvRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean read = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            read = true;
+            char ch = (char) c;
+            if (quoted) {
+                if (ch != '"') {
+                    field.append(ch);
+                    continue;
+                }
+                reader.mark(1);
+                int next = reader.read();
+                if (next == '"') {
+                    field.append('"');
+                } else {
+                    quoted = false;
+                    if (next != -1) {
+                        reader.reset();
+                    }
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else if (ch != '\r') {
+                field.append(ch);
+            }
+        }
+        if (!read) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,323 @@
+package com.org.crm.customer.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.crm.common.events.CustomerEvents;
+import com.org.crm.common.events.EventPublisher;
+import com.org.crm.customer.model.Customer;
+import com.org.crm.customer.repository.CustomerRepository;
+import com.org.crm.customer.service.CustomerService;
+import com.org.crm.customer.statistics.CustomerCounterStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Bulk customer import.
+ *
+ * Rows are streamed from the input, validated and de-duplicated against an
+ * in-memory set of committed emails, then inserted in JDBC batches with ids
+ * reserved up front from the customers id sequence. Each batch commits in its
+ * own transaction together with its CustomerCreatedEvents (outbox rows). A
+ * failing batch is retried row by row so only the offending rows are reported.
+ */
+@Component
+@Slf4j
+public class CustomerImporter {
+
+    private static final int MAX_REPORTED_FAILURES = 1000;
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+
+    private static final String RESERVE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('customers', 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO customers (id, first_name, last_name, email, phone, company, job_title, address, " +
+            "city, state, country, postal_code, website, notes, status, source, assigned_to, " +
+            "created_at, updated_at, total_orders, total_revenue) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final CustomerRepository customerRepository;
+    private final CustomerCounterStore customerCounterStore;
+    private final EventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int defaultBatchSize;
+
+    public CustomerImporter(CustomerRepository customerRepository,
+                            CustomerCounterStore customerCounterStore,
+                            EventPublisher eventPublisher,
+                            JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            ObjectMapper objectMapper,
+                            @Value("${crm.customer.import.batch-size:1000}") int defaultBatchSize) {
+        this.customerRepository = customerRepository;
+        this.customerCounterStore = customerCounterStore;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.defaultBatchSize = defaultBatchSize;
+    }
+
+    /**
+     * Import customers from the given stream
+     *
+     * @param batchSize rows per insert batch, or null for the configured default
+     */
+    public CustomerService.ImportResult importCustomers(CustomerImportFormat format, InputStream inputStream,
+                                                       Integer batchSize) throws IOException {
+        int effectiveBatchSize = batchSize != null && batchSize > 0 ? batchSize : defaultBatchSize;
+        log.info("Starting {} customer import with batch size {}", format, effectiveBatchSize);
+
+        ImportReport report = new ImportReport();
+        ImportBatch batch = new ImportBatch(loadExistingEmails(), report, effectiveBatchSize);
+
+        try (CustomerImportReader reader = new CustomerImportReader(format, objectMapper, inputStream)) {
+            CustomerImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                report.totalRows++;
+                if (row.error() != null) {
+                    report.fail(row.number(), null, row.error());
+                    continue;
+                }
+
+                CustomerService.CreateCustomerRequest request = row.request();
+                String error = validate(request);
+                if (error != null) {
+                    report.fail(row.number(), request.email(), error);
+                    continue;
+                }
+                batch.add(new PendingRow(row.number(), toCustomer(request)));
+            }
+        }
+        batch.flush();
+
+        log.info("Customer import finished: {} rows, {} imported, {} failed",
+                report.totalRows, report.imported, report.failed);
+        return report.toResult();
+    }
+
+    private Set<String> loadExistingEmails() {
+        Set<String> emails = new HashSet<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> existing = customerRepository.streamAllEmails()) {
+                existing.forEach(emails::add);
+            }
+        });
+        log.debug("Loaded {} existing customer emails for import de-duplication", emails.size());
+        return emails;
+    }
+
+    private String validate(CustomerService.CreateCustomerRequest request) {
+        if (isBlank(request.firstName())) {
+            return "First name is required";
+        }
+        if (isBlank(request.lastName())) {
+            return "Last name is required";
+        }
+        if (isBlank(request.email())) {
+            return "Email is required";
+        }
+        if (!EMAIL_PATTERN.matcher(request.email()).matches()) {
+            return "Email should be valid";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private Customer toCustomer(CustomerService.CreateCustomerRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        return Customer.builder()
+                .firstName(request.firstName())
+                .lastName(request.lastName())
+                .email(request.email())
+                .phone(request.phone())
+                .company(request.company())
+                .jobTitle(request.jobTitle())
+                .address(request.address())
+                .city(request.city())
+                .state(request.state())
+                .country(request.country())
+                .postalCode(request.postalCode())
+                .website(request.website())
+                .notes(request.notes())
+                .status(request.status() != null ? request.status() : Customer.CustomerStatus.ACTIVE)
+                .source(request.source())
+                .assignedTo(request.assignedTo())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    /**
+     * Insert a batch, falling back to row by row if it fails; returns the rows that were inserted
+     */
+    private List<PendingRow> insert(List<PendingRow> batch, ImportReport report) {
+        try {
+            insertAndPublish(batch);
+            report.imported += batch.size();
+            return batch;
+        } catch (DataAccessException e) {
+            log.warn("Import batch of {} rows failed, retrying row by row: {}", batch.size(), e.getMessage());
+            List<PendingRow> inserted = new ArrayList<>(batch.size());
+            for (PendingRow row : batch) {
+                try {
+                    insertAndPublish(List.of(row));
+                    report.imported++;
+                    inserted.add(row);
+                } catch (DataAccessException rowFailure) {
+                    report.fail(row.number(), row.customer().getEmail(), rowFailure.getMostSpecificCause().getMessage());
+                }
+            }
+            return inserted;
+        }
+    }
+
+    private void insertAndPublish(List<PendingRow> rows) {
+        List<Customer> customers = rows.stream().map(PendingRow::customer).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(RESERVE_IDS_SQL, Long.class, customers.size());
+            for (int i = 0; i < customers.size(); i++) {
+                customers.get(i).setId(ids.get(i));
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, customers, customers.size(), (ps, customer) -> {
+                ps.setLong(1, customer.getId());
+                ps.setString(2, customer.getFirstName());
+                ps.setString(3, customer.getLastName());
+                ps.setString(4, customer.getEmail());
+                ps.setString(5, customer.getPhone());
+                ps.setString(6, customer.getCompany());
+                ps.setString(7, customer.getJobTitle());
+                ps.setString(8, customer.getAddress());
+                ps.setString(9, customer.getCity());
+                ps.setString(10, customer.getState());
+                ps.setString(11, customer.getCountry());
+                ps.setString(12, customer.getPostalCode());
+                ps.setString(13, customer.getWebsite());
+                ps.setString(14, customer.getNotes());
+                ps.setString(15, customer.getStatus().name());
+                if (customer.getSource() != null) {
+                    ps.setString(16, customer.getSource().name());
+                } else {
+                    ps.setNull(16, Types.VARCHAR);
+                }
+                ps.setString(17, customer.getAssignedTo());
+                ps.setTimestamp(18, Timestamp.valueOf(customer.getCreatedAt()));
+                ps.setTimestamp(19, Timestamp.valueOf(customer.getUpdatedAt()));
+                ps.setInt(20, customer.getTotalOrders());
+                ps.setBigDecimal(21, customer.getTotalRevenue() != null ? customer.getTotalRevenue() : BigDecimal.ZERO);
+            });
+            for (Customer customer : customers) {
+                customerCounterStore.recordCreated(customer.getStatus(), customer.getSource());
+            }
+            eventPublisher.publishCustomerEvents(customers.stream()
+                    .map(customer -> new CustomerEvents.CustomerCreatedEvent(
+                            customer.getId(),
+                            customer.getEmail(),
+                            customer.getFirstName(),
+                            customer.getLastName(),
+                            customer.getCompany(),
+                            customer.getIndustry(),
+                            customer.getAssignedTo()))
+                    .toList());
+        });
+    }
+
+    private record PendingRow(long number, Customer customer) {}
+
+    /**
+     * Rows waiting to be inserted, de-duplicated by email.
+     *
+     * An email counts as taken only once a row carrying it has been committed, so a
+     * row that fails to insert does not block a later row with the same email. A
+     * repeat of an email that is still pending in the current batch is held back
+     * until that batch resolves, then rejected or queued for the next batch.
+     */
+    private final class ImportBatch {
+        private final Set<String> knownEmails;
+        private final ImportReport report;
+        private final int batchSize;
+        private final List<PendingRow> rows = new ArrayList<>();
+        private final Set<String> pendingEmails = new HashSet<>();
+        private final List<PendingRow> heldBack = new ArrayList<>();
+
+        ImportBatch(Set<String> knownEmails, ImportReport report, int batchSize) {
+            this.knownEmails = knownEmails;
+            this.report = report;
+            this.batchSize = batchSize;
+        }
+
+        void add(PendingRow row) {
+            enqueue(row);
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Insert everything pending, including held-back repeats whose email is still free
+         */
+        void flush() {
+            while (!rows.isEmpty()) {
+                for (PendingRow inserted : insert(rows, report)) {
+                    knownEmails.add(inserted.customer().getEmail());
+                }
+                rows.clear();
+                pendingEmails.clear();
+
+                List<PendingRow> retry = new ArrayList<>(heldBack);
+                heldBack.clear();
+                retry.forEach(this::enqueue);
+            }
+        }
+
+        private void enqueue(PendingRow row) {
+            String email = row.customer().getEmail();
+            if (knownEmails.contains(email)) {
+                report.fail(row.number(), email, "Customer with email " + email + " already exists");
+            } else if (!pendingEmails.add(email)) {
+                heldBack.add(row);
+            } else {
+                rows.add(row);
+            }
+        }
+    }
+
+    private static class ImportReport {
+        private long totalRows;
+        private long imported;
+        private long failed;
+        private final List<CustomerService.ImportFailure> failures = new ArrayList<>();
+
+        void fail(long row, String email, String reason) {
+            failed++;
+            if (failures.size() < MAX_REPORTED_FAILURES) {
+                failures.add(new CustomerService.ImportFailure(row, email, reason));
+            }
+        }
+
+        CustomerService.ImportResult toResult() {
+            return new CustomerService.ImportResult(totalRows, imported, failed, failures);
+        }
+    }
+}
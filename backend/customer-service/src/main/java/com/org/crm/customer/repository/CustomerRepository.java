@@ -1,16 +1,23 @@
 package com.org.crm.customer.repository;
 
 import com.org.crm.customer.model.Customer;
+import com.org.crm.customer.service.CustomerService;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Customer entity
@@ -18,6 +25,14 @@ import java.util.Optional;
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
+    /**
+     * Constructor expression selecting only the {@link CustomerService.CustomerSummary} columns
+     */
+    String SUMMARY_SELECT = "SELECT new com.org.crm.customer.service.CustomerService$CustomerSummary(" +
+                            "c.id, c.firstName, c.lastName, c.email, c.phone, c.company, c.jobTitle, " +
+                            "c.city, c.country, c.status, c.source, c.assignedTo, c.createdAt, " +
+                            "c.lastContactDate, c.totalOrders, c.totalRevenue) FROM Customer c";
+
     /**
      * Find customer by email
      */
@@ -34,14 +49,16 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     List<Customer> findByAssignedTo(String assignedTo);
 
     /**
-     * Find customers by company
+     * Find customer summaries by company; the term must be escaped for LIKE with a backslash
      */
-    List<Customer> findByCompanyContainingIgnoreCase(String company);
+    @Query(SUMMARY_SELECT + " WHERE UPPER(c.company) LIKE UPPER(CONCAT('%', :company, '%')) ESCAPE '\\'")
+    List<CustomerService.CustomerSummary> findSummariesByCompany(@Param("company") String company);
 
     /**
-     * Find customers by source
+     * Find customer summaries by source
      */
-    List<Customer> findBySource(Customer.CustomerSource source);
+    @Query(SUMMARY_SELECT + " WHERE c.source = :source")
+    List<CustomerService.CustomerSummary> findSummariesBySource(@Param("source") Customer.CustomerSource source);
 
     /**
      * Find customers created after a specific date
@@ -49,30 +66,110 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     List<Customer> findByCreatedAtAfter(LocalDateTime date);
 
     /**
-     * Find customers with no contact in the last X days
+     * Find customer summaries with no contact in the last X days
+     */
+    @Query(SUMMARY_SELECT + " WHERE c.lastContactDate IS NULL OR c.lastContactDate < :date")
+    List<CustomerService.CustomerSummary> findSummariesWithNoRecentContact(@Param("date") LocalDateTime date);
+
+    /**
+     * Search document used by the trigram index idx_customers_search_trgm (see V2 migration)
+     */
+    String SEARCH_DOCUMENT = "lower(coalesce(c.first_name, '') || ' ' || coalesce(c.last_name, '') || ' ' || " +
+                             "coalesce(c.email, '') || ' ' || coalesce(c.company, ''))";
+
+    /**
+     * Search customer ids by name, email, or company, best matches first; the term must be
+     * escaped for LIKE with a backslash
+     */
+    @Query(value = "SELECT c.id FROM customers c " +
+                   "WHERE " + SEARCH_DOCUMENT + " LIKE '%' || lower(:searchTerm) || '%' ESCAPE '\\' " +
+                   "ORDER BY word_similarity(lower(:searchTerm), " + SEARCH_DOCUMENT + ") DESC, c.id",
+           countQuery = "SELECT COUNT(*) FROM customers c " +
+                        "WHERE " + SEARCH_DOCUMENT + " LIKE '%' || lower(:searchTerm) || '%' ESCAPE '\\'",
+           nativeQuery = true)
+    Page<Long> searchCustomerIds(@Param("searchTerm") String searchTerm, Pageable pageable);
+
+    /**
+     * Find customer summaries by ids (in no particular order)
+     */
+    @Query(SUMMARY_SELECT + " WHERE c.id IN :ids")
+    List<CustomerService.CustomerSummary> findSummariesByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * Find all customer summaries with pagination
+     */
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(c) FROM Customer c")
+    Page<CustomerService.CustomerSummary> findAllSummaries(Pageable pageable);
+
+    /**
+     * Find customer summaries by status with pagination
+     */
+    @Query(value = SUMMARY_SELECT + " WHERE c.status = :status",
+           countQuery = "SELECT COUNT(c) FROM Customer c WHERE c.status = :status")
+    Page<CustomerService.CustomerSummary> findSummariesByStatus(@Param("status") Customer.CustomerStatus status, Pageable pageable);
+
+    /**
+     * Find customer summaries by assigned user with pagination
+     */
+    @Query(value = SUMMARY_SELECT + " WHERE c.assignedTo = :assignedTo",
+           countQuery = "SELECT COUNT(c) FROM Customer c WHERE c.assignedTo = :assignedTo")
+    Page<CustomerService.CustomerSummary> findSummariesByAssignedTo(@Param("assignedTo") String assignedTo, Pageable pageable);
+
+    /**
+     * Count customers by assigned user
+     */
+    long countByAssignedTo(String assignedTo);
+
+    /**
+     * Position predicate for keyset pages in (createdAt DESC, id DESC) order. The leading
+     * {@code c.createdAt <= :createdAt} bound is implied by the disjunction but lets the
+     * planner start a range scan on the (created_at, id) index instead of filtering it.
+     */
+    String KEYSET_AFTER = "c.createdAt <= :createdAt AND " +
+                          "(c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id))";
+
+    /**
+     * Keyset page: first customers in (createdAt DESC, id DESC) order
+     */
+    @Query(SUMMARY_SELECT + " ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<CustomerService.CustomerSummary> findKeysetFirst(Pageable pageable);
+
+    /**
+     * Keyset page: customers after the given (createdAt, id) position
+     */
+    @Query(SUMMARY_SELECT + " WHERE " + KEYSET_AFTER + " ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<CustomerService.CustomerSummary> findKeysetAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                    Pageable pageable);
+
+    /**
+     * Keyset page: first customers with the given status
      */
-    @Query("SELECT c FROM Customer c WHERE c.lastContactDate IS NULL OR c.lastContactDate < :date")
-    List<Customer> findCustomersWithNoRecentContact(@Param("date") LocalDateTime date);
+    @Query(SUMMARY_SELECT + " WHERE c.status = :status ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<CustomerService.CustomerSummary> findKeysetFirstByStatus(@Param("status") Customer.CustomerStatus status, Pageable pageable);
 
     /**
-     * Search customers by name, email, or company
+     * Keyset page: customers with the given status after the given (createdAt, id) position
      */
-    @Query("SELECT c FROM Customer c WHERE " +
-           "LOWER(c.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(c.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(c.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(c.company) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    Page<Customer> searchCustomers(@Param("searchTerm") String searchTerm, Pageable pageable);
+    @Query(SUMMARY_SELECT + " WHERE c.status = :status AND " +
+           KEYSET_AFTER + " ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<CustomerService.CustomerSummary> findKeysetByStatusAfter(@Param("status") Customer.CustomerStatus status,
+                                            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                            Pageable pageable);
 
     /**
-     * Find customers by status with pagination
+     * Keyset page: first customers assigned to the given user
      */
-    Page<Customer> findByStatus(Customer.CustomerStatus status, Pageable pageable);
+    @Query(SUMMARY_SELECT + " WHERE c.assignedTo = :assignedTo ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<CustomerService.CustomerSummary> findKeysetFirstByAssignedTo(@Param("assignedTo") String assignedTo, Pageable pageable);
 
     /**
-     * Find customers by assigned user with pagination
+     * Keyset page: customers assigned to the given user after the given (createdAt, id) position
      */
-    Page<Customer> findByAssignedTo(String assignedTo, Pageable pageable);
+    @Query(SUMMARY_SELECT + " WHERE c.assignedTo = :assignedTo AND " +
+           KEYSET_AFTER + " ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<CustomerService.CustomerSummary> findKeysetByAssignedToAfter(@Param("assignedTo") String assignedTo,
+                                                @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                Pageable pageable);
 
     /**
      * Count customers by status
@@ -84,26 +181,143 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
      */
     long countBySource(Customer.CustomerSource source);
 
+    /**
+     * Count customers grouped by status and source in a single scan.
+     * Each row is {@code [CustomerStatus, CustomerSource (nullable), Long]}.
+     */
+    @Query("SELECT c.status, c.source, COUNT(c) FROM Customer c GROUP BY c.status, c.source")
+    List<Object[]> countGroupByStatusAndSource();
+
     /**
      * Find VIP customers
      */
     List<Customer> findByStatusOrderByTotalRevenueDesc(Customer.CustomerStatus status);
 
     /**
-     * Find customers with highest revenue
+     * Find customer summaries with highest revenue
+     */
+    @Query(value = SUMMARY_SELECT + " ORDER BY c.totalRevenue DESC",
+           countQuery = "SELECT COUNT(c) FROM Customer c")
+    Page<CustomerService.CustomerSummary> findTopCustomersByRevenue(Pageable pageable);
+
+    /**
+     * Find customer summaries by city
+     */
+    @Query(SUMMARY_SELECT + " WHERE UPPER(c.city) = UPPER(:city)")
+    List<CustomerService.CustomerSummary> findSummariesByCity(@Param("city") String city);
+
+    /**
+     * Find customer summaries by country
+     */
+    @Query(SUMMARY_SELECT + " WHERE UPPER(c.country) = UPPER(:country)")
+    List<CustomerService.CustomerSummary> findSummariesByCountry(@Param("country") String country);
+
+    /**
+     * Stream all customers for bulk export using a server-side cursor.
+     *
+     * The filtered exports are separate queries rather than one with
+     * {@code (:status IS NULL OR ...)} predicates: a generic plan of that shape
+     * cannot use the status and source indexes.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Customer c ORDER BY c.id")
+    Stream<Customer> streamAllForExport();
+
+    /**
+     * Stream customers with the given status for bulk export
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Customer c WHERE c.status = :status ORDER BY c.id")
+    Stream<Customer> streamForExportByStatus(@Param("status") Customer.CustomerStatus status);
+
+    /**
+     * Stream customers with the given source for bulk export
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Customer c WHERE c.source = :source ORDER BY c.id")
+    Stream<Customer> streamForExportBySource(@Param("source") Customer.CustomerSource source);
+
+    /**
+     * Stream customers with the given status and source for bulk export
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Customer c WHERE c.status = :status AND c.source = :source ORDER BY c.id")
+    Stream<Customer> streamForExportByStatusAndSource(@Param("status") Customer.CustomerStatus status,
+                                                      @Param("source") Customer.CustomerSource source);
+
+    /**
+     * Stream every customer email (used to de-duplicate bulk imports)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT c.email FROM Customer c")
+    Stream<String> streamAllEmails();
+
+    /**
+     * Next chunk of ids of customers with the given status, in id order after the given id.
+     * One query per filter combination, like the exports, so each can use its index.
+     */
+    @Query("SELECT c.id FROM Customer c WHERE c.status = :status AND c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsForBulkUpdateByStatus(@Param("status") Customer.CustomerStatus status,
+                                            @Param("afterId") Long afterId,
+                                            Pageable pageable);
+
+    /**
+     * Next chunk of ids of customers assigned to the given user, in id order after the given id
+     */
+    @Query("SELECT c.id FROM Customer c WHERE c.assignedTo = :assignedTo AND c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsForBulkUpdateByAssignedTo(@Param("assignedTo") String assignedTo,
+                                                @Param("afterId") Long afterId,
+                                                Pageable pageable);
+
+    /**
+     * Next chunk of ids of customers with the given status and assignee, in id order after the given id
+     */
+    @Query("SELECT c.id FROM Customer c WHERE c.status = :status AND c.assignedTo = :assignedTo " +
+           "AND c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsForBulkUpdateByStatusAndAssignedTo(@Param("status") Customer.CustomerStatus status,
+                                                         @Param("assignedTo") String assignedTo,
+                                                         @Param("afterId") Long afterId,
+                                                         Pageable pageable);
+
+    /**
+     * Lock the rows of the given customers until the end of the transaction, in id order
+     * so concurrent bulk chunks cannot deadlock; returns the ids that still exist
      */
-    @Query("SELECT c FROM Customer c ORDER BY c.totalRevenue DESC")
-    Page<Customer> findTopCustomersByRevenue(Pageable pageable);
+    @Query(value = "SELECT c.id FROM customers c WHERE c.id IN (:ids) ORDER BY c.id FOR UPDATE",
+           nativeQuery = true)
+    List<Long> lockByIds(@Param("ids") List<Long> ids);
 
     /**
-     * Find customers by city
+     * Count customers grouped by status and source for the given ids
      */
-    List<Customer> findByCityIgnoreCase(String city);
+    @Query("SELECT c.status, c.source, COUNT(c) FROM Customer c WHERE c.id IN :ids GROUP BY c.status, c.source")
+    List<Object[]> countGroupByStatusAndSourceForIds(@Param("ids") List<Long> ids);
 
     /**
-     * Find customers by country
+     * Set-based update of status, assignment and last contact date; null arguments leave the column unchanged
      */
-    List<Customer> findByCountryIgnoreCase(String country);
+    @Modifying
+    @Query("UPDATE Customer c SET c.status = COALESCE(:status, c.status), " +
+           "c.assignedTo = COALESCE(:assignedTo, c.assignedTo), " +
+           "c.lastContactDate = COALESCE(:lastContactDate, c.lastContactDate), " +
+           "c.updatedAt = :updatedAt WHERE c.id IN :ids")
+    int bulkUpdate(@Param("ids") List<Long> ids,
+                   @Param("status") Customer.CustomerStatus status,
+                   @Param("assignedTo") String assignedTo,
+                   @Param("lastContactDate") LocalDateTime lastContactDate,
+                   @Param("updatedAt") LocalDateTime updatedAt);
 
     /**
      * Check if email exists
@@ -111,9 +325,9 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     boolean existsByEmail(String email);
 
     /**
-     * Find customers created in date range
+     * Find customer summaries created in date range
      */
-    @Query("SELECT c FROM Customer c WHERE c.createdAt BETWEEN :startDate AND :endDate")
-    List<Customer> findByCreatedAtBetween(@Param("startDate") LocalDateTime startDate, 
+    @Query(SUMMARY_SELECT + " WHERE c.createdAt BETWEEN :startDate AND :endDate")
+    List<CustomerService.CustomerSummary> findSummariesByCreatedAtBetween(@Param("startDate") LocalDateTime startDate, 
                                         @Param("endDate") LocalDateTime endDate);
 } 
\ No newline at end of file
@@ -1,13 +1,19 @@
 package com.org.crm.customer.service;
 
 import com.org.crm.common.dto.CustomerDTO;
+import com.org.crm.customer.export.CustomerExportFormat;
+import com.org.crm.customer.importer.CustomerImportFormat;
 import com.org.crm.customer.model.Customer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -43,37 +49,52 @@ public interface CustomerService {
     /**
      * Get all customers with pagination
      */
-    Page<CustomerResponse> getAllCustomers(Pageable pageable);
+    Page<CustomerSummary> getAllCustomers(Pageable pageable);
 
     /**
      * Search customers
      */
-    Page<CustomerResponse> searchCustomers(String searchTerm, Pageable pageable);
+    Page<CustomerSummary> searchCustomers(String searchTerm, Pageable pageable);
 
     /**
      * Get customers by status
      */
-    Page<CustomerResponse> getCustomersByStatus(Customer.CustomerStatus status, Pageable pageable);
+    Page<CustomerSummary> getCustomersByStatus(Customer.CustomerStatus status, Pageable pageable);
 
     /**
      * Get customers by assigned user
      */
-    Page<CustomerResponse> getCustomersByAssignedTo(String assignedTo, Pageable pageable);
+    Page<CustomerSummary> getCustomersByAssignedTo(String assignedTo, Pageable pageable);
+
+    /**
+     * Get all customers using keyset pagination (newest first)
+     */
+    CustomerSlice getAllCustomers(String cursor, int size, boolean includeTotal);
+
+    /**
+     * Get customers by status using keyset pagination (newest first)
+     */
+    CustomerSlice getCustomersByStatus(Customer.CustomerStatus status, String cursor, int size, boolean includeTotal);
+
+    /**
+     * Get customers by assigned user using keyset pagination (newest first)
+     */
+    CustomerSlice getCustomersByAssignedTo(String assignedTo, String cursor, int size, boolean includeTotal);
 
     /**
      * Get customers by company
      */
-    List<CustomerResponse> getCustomersByCompany(String company);
+    List<CustomerSummary> getCustomersByCompany(String company);
 
     /**
      * Get customers by source
      */
-    List<CustomerResponse> getCustomersBySource(Customer.CustomerSource source);
+    List<CustomerSummary> getCustomersBySource(Customer.CustomerSource source);
 
     /**
      * Get customers with no recent contact
      */
-    List<CustomerResponse> getCustomersWithNoRecentContact(int days);
+    List<CustomerSummary> getCustomersWithNoRecentContact(int days);
 
     /**
      * Update customer status
@@ -90,6 +111,11 @@ public interface CustomerService {
      */
     CustomerResponse updateLastContactDate(Long id);
 
+    /**
+     * Bulk update status, assignment and/or last contact date for matching customers
+     */
+    BulkUpdateResult bulkUpdateCustomers(BulkUpdateRequest request);
+
     /**
      * Get customer statistics
      */
@@ -98,25 +124,40 @@ public interface CustomerService {
     /**
      * Get top customers by revenue
      */
-    Page<CustomerResponse> getTopCustomersByRevenue(Pageable pageable);
+    Page<CustomerSummary> getTopCustomersByRevenue(Pageable pageable);
 
     /**
      * Get customers by location
      */
-    List<CustomerResponse> getCustomersByCity(String city);
+    List<CustomerSummary> getCustomersByCity(String city);
 
-    List<CustomerResponse> getCustomersByCountry(String country);
+    List<CustomerSummary> getCustomersByCountry(String country);
 
     /**
      * Get customers created in date range
      */
-    List<CustomerResponse> getCustomersByDateRange(LocalDateTime startDate, LocalDateTime endDate);
+    List<CustomerSummary> getCustomersByDateRange(LocalDateTime startDate, LocalDateTime endDate);
 
     /**
      * Check if email exists
      */
     boolean emailExists(String email);
 
+    /**
+     * Stream customers matching the optional filters to the given output stream
+     *
+     * @return number of customers written
+     */
+    long exportCustomers(CustomerExportFormat format, Customer.CustomerStatus status,
+                         Customer.CustomerSource source, OutputStream outputStream) throws IOException;
+
+    /**
+     * Bulk import customers from a CSV or NDJSON stream
+     *
+     * @param batchSize rows per insert batch, or null for the configured default
+     */
+    ImportResult importCustomers(CustomerImportFormat format, InputStream inputStream, Integer batchSize) throws IOException;
+
     /**
      * Get customer count by status
      */
@@ -127,6 +168,29 @@ public interface CustomerService {
      */
     long getCustomerCountBySource(Customer.CustomerSource source);
 
+    /**
+     * Lightweight customer projection for list and search results.
+     * Omits the TEXT address and notes columns, which are only returned on detail reads.
+     */
+    record CustomerSummary(
+            Long id,
+            String firstName,
+            String lastName,
+            String email,
+            String phone,
+            String company,
+            String jobTitle,
+            String city,
+            String country,
+            Customer.CustomerStatus status,
+            Customer.CustomerSource source,
+            String assignedTo,
+            LocalDateTime createdAt,
+            LocalDateTime lastContactDate,
+            Integer totalOrders,
+            BigDecimal totalRevenue
+    ) {}
+
     /**
      * Customer response DTO
      */
@@ -182,6 +246,20 @@ public interface CustomerService {
         }
     }
 
+    /**
+     * Keyset page DTO; nextCursor is null on the last page, totalElements and totalApproximate
+     * are null unless requested. Approximate totals come from the per-instance counters and
+     * may lag writes made through other instances until the next reconcile.
+     */
+    record CustomerSlice(
+            List<CustomerSummary> content,
+            int size,
+            boolean hasNext,
+            String nextCursor,
+            Long totalElements,
+            Boolean totalApproximate
+    ) {}
+
     /**
      * Create customer request DTO
      */
@@ -225,6 +303,45 @@ public interface CustomerService {
             String assignedTo
     ) {}
 
+    /**
+     * Bulk update request DTO; targets either ids or the filter fields, null changes are left untouched
+     */
+    record BulkUpdateRequest(
+            List<Long> ids,
+            Customer.CustomerStatus filterStatus,
+            String filterAssignedTo,
+            Customer.CustomerStatus status,
+            String assignedTo,
+            Boolean touchLastContact
+    ) {}
+
+    /**
+     * Bulk update result DTO
+     */
+    record BulkUpdateResult(
+            long updated,
+            int chunks
+    ) {}
+
+    /**
+     * Bulk import result DTO; failures lists at most the first 1000 rejected rows
+     */
+    record ImportResult(
+            long totalRows,
+            long imported,
+            long failed,
+            List<ImportFailure> failures
+    ) {}
+
+    /**
+     * Rejected import row DTO
+     */
+    record ImportFailure(
+            long row,
+            String email,
+            String reason
+    ) {}
+
     /**
      * Customer statistics DTO
      */
@@ -240,6 +357,8 @@ public interface CustomerService {
             long customersBySocialMedia,
             long customersByColdCall,
             long customersByTradeShow,
-            long customersByOther
+            long customersByOther,
+            Map<Customer.CustomerStatus, Long> customersByStatus,
+            Map<Customer.CustomerSource, Long> customersBySource
     ) {}
 } 
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.org.crm.customer.service.impl;
+
+import com.org.crm.customer.exception.GlobalExceptionHandler;
+import com.org.crm.customer.service.CustomerService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the (createdAt DESC, id DESC) customer ordering,
+ * exchanged with clients as an opaque URL-safe token
+ */
+record CustomerCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    static CustomerCursor of(CustomerService.CustomerSummary customer) {
+        return new CustomerCursor(customer.createdAt(), customer.id());
+    }
+
+    String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static CustomerCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new GlobalExceptionHandler.InvalidCursorException("Malformed cursor: " + token);
+            }
+            return new CustomerCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new GlobalExceptionHandler.InvalidCursorException("Malformed cursor: " + token);
+        }
+    }
+}
@@ -3,20 +3,44 @@ package com.org.crm.customer.service.impl;
 import com.org.crm.common.events.BaseEvent;
 import com.org.crm.common.events.CustomerEvents;
 import com.org.crm.common.events.EventPublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.crm.customer.bulk.CustomerBulkUpdater;
+import com.org.crm.customer.cache.CustomerCache;
 import com.org.crm.customer.exception.GlobalExceptionHandler;
+import com.org.crm.customer.export.CustomerExportFormat;
+import com.org.crm.customer.export.CustomerExportWriter;
+import com.org.crm.customer.importer.CustomerImportFormat;
+import com.org.crm.customer.importer.CustomerImporter;
 import com.org.crm.customer.model.Customer;
 import com.org.crm.customer.repository.CustomerRepository;
 import com.org.crm.customer.service.CustomerService;
+import com.org.crm.customer.statistics.CustomerCounterStore;
+import com.org.crm.customer.statistics.CustomerStatisticsEngine;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation of CustomerService
@@ -29,6 +53,16 @@ public class CustomerServiceImpl implements CustomerService {
 
     private final CustomerRepository customerRepository;
     private final EventPublisher eventPublisher;
+    private final CustomerStatisticsEngine customerStatisticsEngine;
+    private final CustomerCounterStore customerCounterStore;
+    private final CustomerImporter customerImporter;
+    private final CustomerBulkUpdater customerBulkUpdater;
+    private final CustomerCache customerCache;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${crm.customer.pagination.max-page-size:200}")
+    private int maxPageSize;
 
     @Override
     public CustomerResponse createCustomer(CreateCustomerRequest request) {
@@ -62,6 +96,7 @@ public class CustomerServiceImpl implements CustomerService {
         // Save customer
         Customer savedCustomer = customerRepository.save(customer);
         log.info("Customer created successfully with ID: {}", savedCustomer.getId());
+        customerCounterStore.recordCreated(savedCustomer.getStatus(), savedCustomer.getSource());
 
         // Publish customer created event
         BaseEvent event = new CustomerEvents.CustomerCreatedEvent(
@@ -79,19 +114,19 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<CustomerResponse> getCustomerById(Long id) {
         log.debug("Fetching customer by ID: {}", id);
-        return customerRepository.findById(id)
-                .map(CustomerResponse::fromCustomer);
+        return customerCache.getById(id, customerId -> customerRepository.findById(customerId)
+                .map(CustomerResponse::fromCustomer));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<CustomerResponse> getCustomerByEmail(String email) {
         log.debug("Fetching customer by email: {}", email);
-        return customerRepository.findByEmail(email)
-                .map(CustomerResponse::fromCustomer);
+        return customerCache.getByEmail(email, customerEmail -> customerRepository.findByEmail(customerEmail)
+                .map(CustomerResponse::fromCustomer));
     }
 
     @Override
@@ -100,6 +135,8 @@ public class CustomerServiceImpl implements CustomerService {
 
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new GlobalExceptionHandler.CustomerNotFoundException("Customer not found with ID: " + id));
+        Customer.CustomerStatus oldStatus = customer.getStatus();
+        Customer.CustomerSource oldSource = customer.getSource();
 
         // Update customer fields
         if (request.firstName() != null) customer.setFirstName(request.firstName());
@@ -120,6 +157,8 @@ public class CustomerServiceImpl implements CustomerService {
 
         Customer updatedCustomer = customerRepository.save(customer);
         log.info("Customer updated successfully with ID: {}", updatedCustomer.getId());
+        customerCounterStore.recordChanged(oldStatus, oldSource, updatedCustomer.getStatus(), updatedCustomer.getSource());
+        customerCache.evictAfterCommit(id);
 
         // Publish customer updated event
         BaseEvent event = new CustomerEvents.CustomerUpdatedEvent(
@@ -146,75 +185,156 @@ public class CustomerServiceImpl implements CustomerService {
         // Publish customer deleted event before deletion
         BaseEvent event = new CustomerEvents.CustomerDeletedEvent(
                 customer.getId(),
-                customer.getEmail()
+                customer.getEmail(),
+                customer.getAssignedTo()
         );
         eventPublisher.publishCustomerEvent(event);
 
         customerRepository.deleteById(id);
+        customerCounterStore.recordDeleted(customer.getStatus(), customer.getSource());
+        customerCache.evictAfterCommit(id);
         log.info("Customer deleted successfully with ID: {}", id);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<CustomerResponse> getAllCustomers(Pageable pageable) {
+    public Page<CustomerSummary> getAllCustomers(Pageable pageable) {
         log.debug("Fetching all customers with pagination: {}", pageable);
-        return customerRepository.findAll(pageable)
-                .map(CustomerResponse::fromCustomer);
+        return customerRepository.findAllSummaries(pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<CustomerResponse> searchCustomers(String searchTerm, Pageable pageable) {
+    public Page<CustomerSummary> searchCustomers(String searchTerm, Pageable pageable) {
         log.debug("Searching customers with term: {}", searchTerm);
-        return customerRepository.searchCustomers(searchTerm, pageable)
-                .map(CustomerResponse::fromCustomer);
+        Page<Long> ids = customerRepository.searchCustomerIds(escapeLike(searchTerm), pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        Map<Long, CustomerSummary> summariesById = customerRepository.findSummariesByIds(ids.getContent())
+                .stream()
+                .collect(Collectors.toMap(CustomerSummary::id, Function.identity()));
+        // Keep the relevance order of the id query; rows deleted in between are dropped
+        List<CustomerSummary> ranked = ids.getContent().stream()
+                .map(summariesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(ranked, pageable, ids.getTotalElements());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<CustomerResponse> getCustomersByStatus(Customer.CustomerStatus status, Pageable pageable) {
+    public Page<CustomerSummary> getCustomersByStatus(Customer.CustomerStatus status, Pageable pageable) {
         log.debug("Fetching customers by status: {}", status);
-        return customerRepository.findByStatus(status, pageable)
-                .map(CustomerResponse::fromCustomer);
+        return customerRepository.findSummariesByStatus(status, pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<CustomerResponse> getCustomersByAssignedTo(String assignedTo, Pageable pageable) {
+    public Page<CustomerSummary> getCustomersByAssignedTo(String assignedTo, Pageable pageable) {
         log.debug("Fetching customers assigned to: {}", assignedTo);
-        return customerRepository.findByAssignedTo(assignedTo, pageable)
-                .map(CustomerResponse::fromCustomer);
+        return customerRepository.findSummariesByAssignedTo(assignedTo, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerSlice getAllCustomers(String cursor, int size, boolean includeTotal) {
+        log.debug("Fetching all customers with cursor: {}, size: {}", cursor, size);
+        Pageable pageable = keysetPage(size);
+        Slice<CustomerSummary> slice;
+        if (cursor == null || cursor.isBlank()) {
+            slice = customerRepository.findKeysetFirst(pageable);
+        } else {
+            CustomerCursor position = CustomerCursor.decode(cursor);
+            slice = customerRepository.findKeysetAfter(position.createdAt(), position.id(), pageable);
+        }
+        Long total = includeTotal ? customerCounterStore.snapshot().total() : null;
+        return toCustomerSlice(slice, total, true);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<CustomerResponse> getCustomersByCompany(String company) {
+    public CustomerSlice getCustomersByStatus(Customer.CustomerStatus status, String cursor, int size, boolean includeTotal) {
+        log.debug("Fetching customers by status: {} with cursor: {}, size: {}", status, cursor, size);
+        Pageable pageable = keysetPage(size);
+        Slice<CustomerSummary> slice;
+        if (cursor == null || cursor.isBlank()) {
+            slice = customerRepository.findKeysetFirstByStatus(status, pageable);
+        } else {
+            CustomerCursor position = CustomerCursor.decode(cursor);
+            slice = customerRepository.findKeysetByStatusAfter(status, position.createdAt(), position.id(), pageable);
+        }
+        Long total = includeTotal ? customerCounterStore.snapshot().statusHistogram()[status.ordinal()] : null;
+        return toCustomerSlice(slice, total, true);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerSlice getCustomersByAssignedTo(String assignedTo, String cursor, int size, boolean includeTotal) {
+        log.debug("Fetching customers assigned to: {} with cursor: {}, size: {}", assignedTo, cursor, size);
+        Pageable pageable = keysetPage(size);
+        Slice<CustomerSummary> slice;
+        if (cursor == null || cursor.isBlank()) {
+            slice = customerRepository.findKeysetFirstByAssignedTo(assignedTo, pageable);
+        } else {
+            CustomerCursor position = CustomerCursor.decode(cursor);
+            slice = customerRepository.findKeysetByAssignedToAfter(assignedTo, position.createdAt(), position.id(), pageable);
+        }
+        // No counters per assignee; the indexed COUNT is exact
+        Long total = includeTotal ? customerRepository.countByAssignedTo(assignedTo) : null;
+        return toCustomerSlice(slice, total, false);
+    }
+
+    private Pageable keysetPage(int size) {
+        if (size < 1 || size > maxPageSize) {
+            throw new GlobalExceptionHandler.InvalidPageSizeException(
+                    "Page size must be between 1 and " + maxPageSize + ", got " + size);
+        }
+        return PageRequest.of(0, size);
+    }
+
+    /**
+     * Match user input literally in a LIKE pattern; the queries declare backslash as the escape character
+     */
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private CustomerSlice toCustomerSlice(Slice<CustomerSummary> slice, Long total, boolean approximate) {
+        List<CustomerSummary> customers = slice.getContent();
+        String nextCursor = slice.hasNext() && !customers.isEmpty()
+                ? CustomerCursor.of(customers.get(customers.size() - 1)).encode()
+                : null;
+        return new CustomerSlice(
+                customers,
+                slice.getSize(),
+                slice.hasNext(),
+                nextCursor,
+                total,
+                total != null ? approximate : null
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CustomerSummary> getCustomersByCompany(String company) {
         log.debug("Fetching customers by company: {}", company);
-        return customerRepository.findByCompanyContainingIgnoreCase(company)
-                .stream()
-                .map(CustomerResponse::fromCustomer)
-                .toList();
+        return customerRepository.findSummariesByCompany(escapeLike(company));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<CustomerResponse> getCustomersBySource(Customer.CustomerSource source) {
+    public List<CustomerSummary> getCustomersBySource(Customer.CustomerSource source) {
         log.debug("Fetching customers by source: {}", source);
-        return customerRepository.findBySource(source)
-                .stream()
-                .map(CustomerResponse::fromCustomer)
-                .toList();
+        return customerRepository.findSummariesBySource(source);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<CustomerResponse> getCustomersWithNoRecentContact(int days) {
+    public List<CustomerSummary> getCustomersWithNoRecentContact(int days) {
         log.debug("Fetching customers with no contact in last {} days", days);
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(days);
-        return customerRepository.findCustomersWithNoRecentContact(cutoffDate)
-                .stream()
-                .map(CustomerResponse::fromCustomer)
-                .toList();
+        return customerRepository.findSummariesWithNoRecentContact(cutoffDate);
     }
 
     @Override
@@ -224,8 +344,11 @@ public class CustomerServiceImpl implements CustomerService {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new GlobalExceptionHandler.CustomerNotFoundException("Customer not found with ID: " + id));
 
+        Customer.CustomerStatus oldStatus = customer.getStatus();
         customer.setStatus(status);
         Customer updatedCustomer = customerRepository.save(customer);
+        customerCounterStore.recordChanged(oldStatus, customer.getSource(), status, customer.getSource());
+        customerCache.evictAfterCommit(id);
 
         // Publish customer updated event
         BaseEvent event = new CustomerEvents.CustomerUpdatedEvent(
@@ -251,6 +374,7 @@ public class CustomerServiceImpl implements CustomerService {
 
         customer.setAssignedTo(assignedTo);
         Customer updatedCustomer = customerRepository.save(customer);
+        customerCache.evictAfterCommit(id);
 
         // Publish customer updated event
         BaseEvent event = new CustomerEvents.CustomerUpdatedEvent(
@@ -276,81 +400,65 @@ public class CustomerServiceImpl implements CustomerService {
 
         customer.setLastContactDate(LocalDateTime.now());
         Customer updatedCustomer = customerRepository.save(customer);
+        customerCache.evictAfterCommit(id);
+
+        // Publish customer updated event so other instances evict their cached copy
+        BaseEvent event = new CustomerEvents.CustomerUpdatedEvent(
+                updatedCustomer.getId(),
+                updatedCustomer.getEmail(),
+                updatedCustomer.getFirstName(),
+                updatedCustomer.getLastName(),
+                updatedCustomer.getCompany(),
+                updatedCustomer.getIndustry(),
+                updatedCustomer.getAssignedTo()
+        );
+        eventPublisher.publishCustomerEvent(event);
 
         return CustomerResponse.fromCustomer(updatedCustomer);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkUpdateResult bulkUpdateCustomers(BulkUpdateRequest request) {
+        log.info("Bulk updating customers: {}", request);
+        // Each chunk commits in its own transaction inside the updater
+        return customerBulkUpdater.update(request);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public CustomerStatistics getCustomerStatistics() {
         log.debug("Fetching customer statistics");
 
-        long totalCustomers = customerRepository.count();
-        long activeCustomers = customerRepository.countByStatus(Customer.CustomerStatus.ACTIVE);
-        long inactiveCustomers = customerRepository.countByStatus(Customer.CustomerStatus.INACTIVE);
-        long prospectCustomers = customerRepository.countByStatus(Customer.CustomerStatus.PROSPECT);
-        long leadCustomers = customerRepository.countByStatus(Customer.CustomerStatus.LEAD);
-        long vipCustomers = customerRepository.countByStatus(Customer.CustomerStatus.VIP);
-
-        long customersByWebsite = customerRepository.countBySource(Customer.CustomerSource.WEBSITE);
-        long customersByReferral = customerRepository.countBySource(Customer.CustomerSource.REFERRAL);
-        long customersBySocialMedia = customerRepository.countBySource(Customer.CustomerSource.SOCIAL_MEDIA);
-        long customersByColdCall = customerRepository.countBySource(Customer.CustomerSource.COLD_CALL);
-        long customersByTradeShow = customerRepository.countBySource(Customer.CustomerSource.TRADE_SHOW);
-        long customersByOther = customerRepository.countBySource(Customer.CustomerSource.OTHER);
-
-        return new CustomerStatistics(
-                totalCustomers,
-                activeCustomers,
-                inactiveCustomers,
-                prospectCustomers,
-                leadCustomers,
-                vipCustomers,
-                customersByWebsite,
-                customersByReferral,
-                customersBySocialMedia,
-                customersByColdCall,
-                customersByTradeShow,
-                customersByOther
-        );
+        return customerStatisticsEngine.toStatistics(customerCounterStore.snapshot());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<CustomerResponse> getTopCustomersByRevenue(Pageable pageable) {
+    public Page<CustomerSummary> getTopCustomersByRevenue(Pageable pageable) {
         log.debug("Fetching top customers by revenue");
-        return customerRepository.findTopCustomersByRevenue(pageable)
-                .map(CustomerResponse::fromCustomer);
+        return customerRepository.findTopCustomersByRevenue(pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<CustomerResponse> getCustomersByCity(String city) {
+    public List<CustomerSummary> getCustomersByCity(String city) {
         log.debug("Fetching customers by city: {}", city);
-        return customerRepository.findByCityIgnoreCase(city)
-                .stream()
-                .map(CustomerResponse::fromCustomer)
-                .toList();
+        return customerRepository.findSummariesByCity(city);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<CustomerResponse> getCustomersByCountry(String country) {
+    public List<CustomerSummary> getCustomersByCountry(String country) {
         log.debug("Fetching customers by country: {}", country);
-        return customerRepository.findByCountryIgnoreCase(country)
-                .stream()
-                .map(CustomerResponse::fromCustomer)
-                .toList();
+        return customerRepository.findSummariesByCountry(country);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<CustomerResponse> getCustomersByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+    public List<CustomerSummary> getCustomersByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         log.debug("Fetching customers created between {} and {}", startDate, endDate);
-        return customerRepository.findByCreatedAtBetween(startDate, endDate)
-                .stream()
-                .map(CustomerResponse::fromCustomer)
-                .toList();
+        return customerRepository.findSummariesByCreatedAtBetween(startDate, endDate);
     }
 
     @Override
@@ -359,6 +467,52 @@ public class CustomerServiceImpl implements CustomerService {
         return customerRepository.existsByEmail(email);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public long exportCustomers(CustomerExportFormat format, Customer.CustomerStatus status,
+                                Customer.CustomerSource source, OutputStream outputStream) throws IOException {
+        log.info("Exporting customers as {} (status: {}, source: {})", format, status, source);
+
+        CustomerExportWriter writer = new CustomerExportWriter(format, objectMapper, outputStream);
+        writer.writeHeader();
+
+        long rows = 0;
+        try (Stream<Customer> customers = streamForExport(status, source)) {
+            Iterator<Customer> iterator = customers.iterator();
+            while (iterator.hasNext()) {
+                Customer customer = iterator.next();
+                writer.write(CustomerResponse.fromCustomer(customer));
+                // Keep the persistence context from growing with the result set
+                entityManager.detach(customer);
+                rows++;
+            }
+        }
+        writer.flush();
+
+        log.info("Exported {} customers as {}", rows, format);
+        return rows;
+    }
+
+    private Stream<Customer> streamForExport(Customer.CustomerStatus status, Customer.CustomerSource source) {
+        if (status != null && source != null) {
+            return customerRepository.streamForExportByStatusAndSource(status, source);
+        }
+        if (status != null) {
+            return customerRepository.streamForExportByStatus(status);
+        }
+        if (source != null) {
+            return customerRepository.streamForExportBySource(source);
+        }
+        return customerRepository.streamAllForExport();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportResult importCustomers(CustomerImportFormat format, InputStream inputStream, Integer batchSize) throws IOException {
+        // Each batch commits in its own transaction inside the importer
+        return customerImporter.importCustomers(format, inputStream, batchSize);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public long getCustomerCountByStatus(Customer.CustomerStatus status) {
@@ -0,0 +1,198 @@
+package com.org.crm.customer.statistics;
+
+import com.org.crm.customer.model.Customer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory status x source customer counters.
+ *
+ * Seeded from the database once the application is ready and then adjusted
+ * after each committed customer write, so statistics reads never touch the
+ * database. A scheduled job reconciles the counters against the database and
+ * publishes the observed drift as a gauge.
+ *
+ * The counters are per instance and approximate. Only writes made through
+ * this instance adjust them; with several customer-service instances, writes
+ * made elsewhere show up at the next reconciliation, so counts can lag by up to
+ * {@code crm.customer.statistics.reconcile-interval-ms}. Use the database when
+ * an exact count is required.
+ */
+@Component
+@Slf4j
+public class CustomerCounterStore {
+
+    private static final int SEED_ATTEMPTS = 5;
+
+    private final CustomerStatisticsEngine customerStatisticsEngine;
+    private final LongAdder[] cells = new LongAdder[CustomerCounts.STATUSES.length * CustomerCounts.SOURCE_COLUMNS];
+    private final AtomicLong drift = new AtomicLong();
+    private volatile boolean seeded;
+
+    public CustomerCounterStore(CustomerStatisticsEngine customerStatisticsEngine, MeterRegistry meterRegistry) {
+        this.customerStatisticsEngine = customerStatisticsEngine;
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new LongAdder();
+        }
+        Gauge.builder("crm.customer.counters.drift", drift, AtomicLong::get)
+                .description("Absolute difference between in-memory customer counters and the database at last reconciliation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Seed counters from the database.
+     *
+     * Writes committed before the aggregate are already counted by it, yet their
+     * after-commit deltas may have landed in the cells too, so the cells are set to
+     * the aggregate rather than added to it, and only when no delta arrived while it
+     * ran. If writes keep racing, the last aggregate is applied anyway and the
+     * scheduled reconciliation converges the rest.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        for (int attempt = 1; attempt < SEED_ATTEMPTS; attempt++) {
+            if (synchronize(false) >= 0) {
+                seeded = true;
+                log.info("Customer counters seeded with {} customers", snapshot().total());
+                return;
+            }
+        }
+        synchronize(true);
+        seeded = true;
+        log.info("Customer counters seeded while writes were in flight; reconciliation will correct any drift");
+    }
+
+    /**
+     * Record a newly created customer once the surrounding transaction commits
+     */
+    public void recordCreated(Customer.CustomerStatus status, Customer.CustomerSource source) {
+        afterCommit(() -> cells[CustomerCounts.cellIndex(status, source)].increment());
+    }
+
+    /**
+     * Record a deleted customer once the surrounding transaction commits
+     */
+    public void recordDeleted(Customer.CustomerStatus status, Customer.CustomerSource source) {
+        afterCommit(() -> cells[CustomerCounts.cellIndex(status, source)].decrement());
+    }
+
+    /**
+     * Move a customer between cells once the surrounding transaction commits
+     */
+    public void recordChanged(Customer.CustomerStatus oldStatus, Customer.CustomerSource oldSource,
+                              Customer.CustomerStatus newStatus, Customer.CustomerSource newSource) {
+        int from = CustomerCounts.cellIndex(oldStatus, oldSource);
+        int to = CustomerCounts.cellIndex(newStatus, newSource);
+        if (from == to) {
+            return;
+        }
+        afterCommit(() -> {
+            cells[from].decrement();
+            cells[to].increment();
+        });
+    }
+
+    /**
+     * Move a number of customers between cells once the surrounding transaction commits
+     */
+    public void recordChanged(Customer.CustomerStatus oldStatus, Customer.CustomerSource oldSource,
+                              Customer.CustomerStatus newStatus, Customer.CustomerSource newSource, long count) {
+        int from = CustomerCounts.cellIndex(oldStatus, oldSource);
+        int to = CustomerCounts.cellIndex(newStatus, newSource);
+        if (from == to || count == 0) {
+            return;
+        }
+        afterCommit(() -> {
+            cells[from].add(-count);
+            cells[to].add(count);
+        });
+    }
+
+    /**
+     * Current counts; falls back to the database until the counters are seeded
+     */
+    public CustomerCounts snapshot() {
+        if (!seeded) {
+            return customerStatisticsEngine.aggregate();
+        }
+        return new CustomerCounts(readCells());
+    }
+
+    /**
+     * Compare counters with the database and correct them when no writes raced the check
+     */
+    @Scheduled(fixedDelayString = "${crm.customer.statistics.reconcile-interval-ms:300000}",
+               initialDelayString = "${crm.customer.statistics.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        if (!seeded) {
+            return;
+        }
+
+        long totalDrift = synchronize(false);
+        if (totalDrift > 0) {
+            drift.set(totalDrift);
+            log.warn("Customer counters drifted from database by {}, corrected", totalDrift);
+        } else if (totalDrift == 0) {
+            drift.set(0);
+        }
+    }
+
+    /**
+     * Bring the cells to the database aggregate. Deltas are applied relative to the
+     * cells read after the aggregate, so writes landing meanwhile are kept.
+     *
+     * @param force apply even if the cells changed while the aggregate ran
+     * @return the absolute drift corrected, or -1 if the cells changed and nothing was applied
+     */
+    private long synchronize(boolean force) {
+        long[] before = readCells();
+        CustomerCounts actual = customerStatisticsEngine.aggregate();
+        long[] after = readCells();
+
+        if (!force && !Arrays.equals(before, after)) {
+            log.debug("Customer counters changed while aggregating, skipping correction");
+            return -1;
+        }
+        long totalDrift = 0;
+        for (int i = 0; i < cells.length; i++) {
+            long delta = actual.cell(i) - after[i];
+            if (delta != 0) {
+                cells[i].add(delta);
+                totalDrift += Math.abs(delta);
+            }
+        }
+        return totalDrift;
+    }
+
+    private long[] readCells() {
+        long[] values = new long[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            values[i] = cells[i].sum();
+        }
+        return values;
+    }
+
+    private void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,127 @@
+package com.org.crm.customer.statistics;
+
+import com.org.crm.customer.model.Customer;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable status x source count matrix for customers.
+ *
+ * Cells are stored in a flat {@code long[]} indexed by enum ordinal, with one
+ * extra source column for customers that have no source. New enum constants
+ * are picked up automatically.
+ */
+public final class CustomerCounts {
+
+    static final Customer.CustomerStatus[] STATUSES = Customer.CustomerStatus.values();
+    static final Customer.CustomerSource[] SOURCES = Customer.CustomerSource.values();
+
+    /**
+     * Source columns: one per {@link Customer.CustomerSource} plus one for a null source
+     */
+    static final int SOURCE_COLUMNS = SOURCES.length + 1;
+    static final int NO_SOURCE_COLUMN = SOURCES.length;
+
+    private final long[] cells;
+
+    CustomerCounts(long[] cells) {
+        this.cells = cells;
+    }
+
+    /**
+     * Build counts from rows of {@code [status, source, count]}
+     */
+    public static CustomerCounts fromGroupedRows(List<Object[]> rows) {
+        long[] cells = new long[STATUSES.length * SOURCE_COLUMNS];
+        for (Object[] row : rows) {
+            Customer.CustomerStatus status = (Customer.CustomerStatus) row[0];
+            Customer.CustomerSource source = (Customer.CustomerSource) row[1];
+            if (status == null) {
+                continue;
+            }
+            cells[cellIndex(status, source)] += ((Number) row[2]).longValue();
+        }
+        return new CustomerCounts(cells);
+    }
+
+    static int cellIndex(Customer.CustomerStatus status, Customer.CustomerSource source) {
+        int column = source != null ? source.ordinal() : NO_SOURCE_COLUMN;
+        return status.ordinal() * SOURCE_COLUMNS + column;
+    }
+
+    long cell(int index) {
+        return cells[index];
+    }
+
+    /**
+     * Total number of customers
+     */
+    public long total() {
+        long total = 0;
+        for (long cell : cells) {
+            total += cell;
+        }
+        return total;
+    }
+
+    /**
+     * Number of customers with the given status and source (null source allowed)
+     */
+    public long get(Customer.CustomerStatus status, Customer.CustomerSource source) {
+        return cells[cellIndex(status, source)];
+    }
+
+    /**
+     * Customer counts per status, indexed by {@link Customer.CustomerStatus#ordinal()}
+     */
+    public long[] statusHistogram() {
+        long[] histogram = new long[STATUSES.length];
+        for (int s = 0; s < STATUSES.length; s++) {
+            int row = s * SOURCE_COLUMNS;
+            for (int c = 0; c < SOURCE_COLUMNS; c++) {
+                histogram[s] += cells[row + c];
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Customer counts per source, indexed by {@link Customer.CustomerSource#ordinal()}
+     */
+    public long[] sourceHistogram() {
+        long[] histogram = new long[SOURCES.length];
+        for (int s = 0; s < STATUSES.length; s++) {
+            int row = s * SOURCE_COLUMNS;
+            for (int c = 0; c < SOURCES.length; c++) {
+                histogram[c] += cells[row + c];
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Customer counts per status as a map
+     */
+    public Map<Customer.CustomerStatus, Long> byStatus() {
+        long[] histogram = statusHistogram();
+        Map<Customer.CustomerStatus, Long> result = new EnumMap<>(Customer.CustomerStatus.class);
+        for (Customer.CustomerStatus status : STATUSES) {
+            result.put(status, histogram[status.ordinal()]);
+        }
+        return result;
+    }
+
+    /**
+     * Customer counts per source as a map
+     */
+    public Map<Customer.CustomerSource, Long> bySource() {
+        long[] histogram = sourceHistogram();
+        Map<Customer.CustomerSource, Long> result = new EnumMap<>(Customer.CustomerSource.class);
+        for (Customer.CustomerSource source : SOURCES) {
+            result.put(source, histogram[source.ordinal()]);
+        }
+        return result;
+    }
+}
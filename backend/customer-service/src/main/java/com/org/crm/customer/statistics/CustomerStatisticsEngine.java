@@ -0,0 +1,54 @@
+package com.org.crm.customer.statistics;
+
+import com.org.crm.customer.model.Customer;
+import com.org.crm.customer.repository.CustomerRepository;
+import com.org.crm.customer.service.CustomerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Computes customer statistics from a single grouped query over the customers table
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CustomerStatisticsEngine {
+
+    private final CustomerRepository customerRepository;
+
+    /**
+     * Load the full status x source count matrix in one round trip
+     */
+    @Transactional(readOnly = true)
+    public CustomerCounts aggregate() {
+        log.debug("Aggregating customer counts by status and source");
+        return CustomerCounts.fromGroupedRows(customerRepository.countGroupByStatusAndSource());
+    }
+
+    /**
+     * Convert a count matrix into the statistics DTO
+     */
+    public CustomerService.CustomerStatistics toStatistics(CustomerCounts counts) {
+        long[] byStatus = counts.statusHistogram();
+        long[] bySource = counts.sourceHistogram();
+
+        return new CustomerService.CustomerStatistics(
+                counts.total(),
+                byStatus[Customer.CustomerStatus.ACTIVE.ordinal()],
+                byStatus[Customer.CustomerStatus.INACTIVE.ordinal()],
+                byStatus[Customer.CustomerStatus.PROSPECT.ordinal()],
+                byStatus[Customer.CustomerStatus.LEAD.ordinal()],
+                byStatus[Customer.CustomerStatus.VIP.ordinal()],
+                bySource[Customer.CustomerSource.WEBSITE.ordinal()],
+                bySource[Customer.CustomerSource.REFERRAL.ordinal()],
+                bySource[Customer.CustomerSource.SOCIAL_MEDIA.ordinal()],
+                bySource[Customer.CustomerSource.COLD_CALL.ordinal()],
+                bySource[Customer.CustomerSource.TRADE_SHOW.ordinal()],
+                bySource[Customer.CustomerSource.OTHER.ordinal()],
+                counts.byStatus(),
+                counts.bySource()
+        );
+    }
+}
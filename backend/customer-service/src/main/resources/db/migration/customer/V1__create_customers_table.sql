@@ -0,0 +1,29 @@
+-- Customers table as previously created by Hibernate (ddl-auto: update).
+-- IF NOT EXISTS lets existing databases adopt this migration unchanged.
+
+CREATE TABLE IF NOT EXISTS customers (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name        VARCHAR(255)   NOT NULL,
+    last_name         VARCHAR(255)   NOT NULL,
+    email             VARCHAR(255)   NOT NULL,
+    phone             VARCHAR(255),
+    company           VARCHAR(255),
+    job_title         VARCHAR(255),
+    address           TEXT,
+    city              VARCHAR(255),
+    state             VARCHAR(255),
+    country           VARCHAR(255),
+    postal_code       VARCHAR(255),
+    website           VARCHAR(255),
+    notes             TEXT,
+    status            VARCHAR(255)   NOT NULL,
+    source            VARCHAR(255),
+    industry          VARCHAR(255),
+    assigned_to       VARCHAR(255),
+    created_at        TIMESTAMP(6)   NOT NULL,
+    updated_at        TIMESTAMP(6)   NOT NULL,
+    last_contact_date TIMESTAMP(6),
+    total_orders      INTEGER,
+    total_revenue     NUMERIC(10, 2),
+    CONSTRAINT uk_customers_email UNIQUE (email)
+);
@@ -0,0 +1,41 @@
+-- Indexes matched to CustomerRepository query shapes.
+-- Spring Data "IgnoreCase" finders compare upper(column) = upper(?), so the
+-- functional indexes below are on upper(), not lower().
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- searchCustomers: LIKE '%term%' over the lowered name/email/company document
+CREATE INDEX IF NOT EXISTS idx_customers_search_trgm ON customers USING gin (
+    (lower(coalesce(first_name, '') || ' ' || coalesce(last_name, '') || ' ' ||
+           coalesce(email, '') || ' ' || coalesce(company, ''))) gin_trgm_ops
+);
+
+-- findByCompanyContainingIgnoreCase: upper(company) LIKE upper('%term%')
+CREATE INDEX IF NOT EXISTS idx_customers_company_upper_trgm ON customers USING gin (upper(company) gin_trgm_ops);
+
+-- Keyset pagination (created_at DESC, id DESC) overall and per filter; also serves
+-- findByStatus, findByAssignedTo, findByCreatedAtAfter and findByCreatedAtBetween
+CREATE INDEX IF NOT EXISTS idx_customers_created_at_id ON customers (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_customers_status_created_at_id ON customers (status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_customers_assigned_to_created_at_id ON customers (assigned_to, created_at DESC, id DESC);
+
+-- findBySource / countBySource
+CREATE INDEX IF NOT EXISTS idx_customers_source ON customers (source);
+
+-- countGroupByStatusAndSource: index-only scan instead of reading the heap
+CREATE INDEX IF NOT EXISTS idx_customers_status_source ON customers (status, source);
+
+-- findByCityIgnoreCase / findByCountryIgnoreCase
+CREATE INDEX IF NOT EXISTS idx_customers_city_upper ON customers (upper(city));
+CREATE INDEX IF NOT EXISTS idx_customers_country_upper ON customers (upper(country));
+
+-- findCustomersWithNoRecentContact: last_contact_date < ? OR last_contact_date IS NULL
+CREATE INDEX IF NOT EXISTS idx_customers_last_contact_date ON customers (last_contact_date);
+CREATE INDEX IF NOT EXISTS idx_customers_never_contacted ON customers (id) WHERE last_contact_date IS NULL;
+
+-- findTopCustomersByRevenue
+CREATE INDEX IF NOT EXISTS idx_customers_total_revenue ON customers (total_revenue DESC);
+
+-- findByStatusOrderByTotalRevenueDesc, with a partial index for the VIP list
+CREATE INDEX IF NOT EXISTS idx_customers_status_total_revenue ON customers (status, total_revenue DESC);
+CREATE INDEX IF NOT EXISTS idx_customers_vip_total_revenue ON customers (total_revenue DESC) WHERE status = 'VIP';
@@ -0,0 +1,21 @@
+-- Transactional outbox for EventPublisher (crm.outbox.enabled); rows are
+-- written with the business change and relayed to RabbitMQ by OutboxRelay.
+
+CREATE TABLE IF NOT EXISTS event_outbox (
+    id           BIGSERIAL PRIMARY KEY,
+    event_id     VARCHAR(64)  NOT NULL,
+    exchange     VARCHAR(255) NOT NULL,
+    routing_key  VARCHAR(255) NOT NULL,
+    payload_type VARCHAR(255) NOT NULL,
+    payload      TEXT         NOT NULL,
+    created_at   TIMESTAMP    NOT NULL,
+    sent_at      TIMESTAMP,
+    attempts     INTEGER      NOT NULL DEFAULT 0,
+    last_error   VARCHAR(1000)
+);
+
+-- Relay scan: unsent rows in id order
+CREATE INDEX IF NOT EXISTS idx_event_outbox_pending ON event_outbox (id) WHERE sent_at IS NULL;
+
+-- Purge of sent rows past retention
+CREATE INDEX IF NOT EXISTS idx_event_outbox_sent_at ON event_outbox (sent_at) WHERE sent_at IS NOT NULL;
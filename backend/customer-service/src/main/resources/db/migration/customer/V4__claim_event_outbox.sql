@@ -0,0 +1,5 @@
+-- OutboxRelay claims a batch by stamping claimed_until in a short transaction,
+-- publishes outside it, then marks the rows sent. An expired claim means the
+-- relay died mid-publish and the rows are picked up again.
+
+ALTER TABLE event_outbox ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMP;
@@ -0,0 +1,146 @@
+package com.org.crm.customer.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.crm.customer.model.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerImportReaderTest {
+
+    private static final String HEADER = "firstName,lastName,email,company,notes\n";
+
+    @Test
+    void readsPlainRows() throws IOException {
+        List<CustomerImportReader.Row> rows = readCsv(HEADER +
+                "Ada,Lovelace,ada@example.com,Analytical,\n" +
+                "Alan,Turing,alan@example.com,Bletchley,Codebreaker\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).number()).isEqualTo(1);
+        assertThat(rows.get(0).request().firstName()).isEqualTo("Ada");
+        assertThat(rows.get(0).request().notes()).isNull();
+        assertThat(rows.get(1).number()).isEqualTo(2);
+        assertThat(rows.get(1).request().notes()).isEqualTo("Codebreaker");
+    }
+
+    @Test
+    void keepsCommasInsideQuotedFields() throws IOException {
+        List<CustomerImportReader.Row> rows = readCsv(HEADER +
+                "Ada,Lovelace,ada@example.com,\"Babbage, Lovelace & Co\",\"first, second\"\n");
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).request().company()).isEqualTo("Babbage, Lovelace & Co");
+        assertThat(rows.get(0).request().notes()).isEqualTo("first, second");
+    }
+
+    @Test
+    void unescapesDoubledQuotes() throws IOException {
+        List<CustomerImportReader.Row> rows = readCsv(HEADER +
+                "Ada,Lovelace,ada@example.com,\"The \"\"Engine\"\" Company\",\"\"\"quoted\"\"\"\n");
+
+        assertThat(rows.get(0).request().company()).isEqualTo("The \"Engine\" Company");
+        assertThat(rows.get(0).request().notes()).isEqualTo("\"quoted\"");
+    }
+
+    @Test
+    void acceptsCrlfLineEndings() throws IOException {
+        List<CustomerImportReader.Row> rows = readCsv(
+                "firstName,lastName,email,company,notes\r\n" +
+                "Ada,Lovelace,ada@example.com,Analytical,last\r\n" +
+                "Alan,Turing,alan@example.com,Bletchley,\r\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).request().notes()).isEqualTo("last");
+        assertThat(rows.get(1).request().email()).isEqualTo("alan@example.com");
+        assertThat(rows.get(1).request().notes()).isNull();
+    }
+
+    @Test
+    void keepsLineBreaksInsideQuotedFields() throws IOException {
+        List<CustomerImportReader.Row> rows = readCsv(HEADER +
+                "Ada,Lovelace,ada@example.com,Analytical,\"line one\nline two\r\nline three\"\n" +
+                "Alan,Turing,alan@example.com,Bletchley,\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).request().notes()).isEqualTo("line one\nline two\r\nline three");
+        assertThat(rows.get(1).number()).isEqualTo(2);
+        assertThat(rows.get(1).request().firstName()).isEqualTo("Alan");
+    }
+
+    @Test
+    void readsLastRowWithoutTrailingNewline() throws IOException {
+        List<CustomerImportReader.Row> rows = readCsv(HEADER + "Ada,Lovelace,ada@example.com,\"Analytical\",done");
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).request().notes()).isEqualTo("done");
+    }
+
+    @Test
+    void skipsBlankLinesAndIgnoresUnknownColumns() throws IOException {
+        List<CustomerImportReader.Row> rows = readCsv(
+                "email,shoeSize,firstName,lastName\n" +
+                "\n" +
+                "ada@example.com,38,Ada,Lovelace\n" +
+                "\n");
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).number()).isEqualTo(1);
+        assertThat(rows.get(0).request().email()).isEqualTo("ada@example.com");
+        assertThat(rows.get(0).request().firstName()).isEqualTo("Ada");
+    }
+
+    @Test
+    void parsesEnumsCaseInsensitivelyAndReportsInvalidOnes() throws IOException {
+        List<CustomerImportReader.Row> rows = readCsv(
+                "firstName,lastName,email,status,source\n" +
+                "Ada,Lovelace,ada@example.com,vip,referral\n" +
+                "Alan,Turing,alan@example.com,FAMOUS,\n");
+
+        assertThat(rows.get(0).request().status()).isEqualTo(Customer.CustomerStatus.VIP);
+        assertThat(rows.get(0).request().source()).isEqualTo(Customer.CustomerSource.REFERRAL);
+        assertThat(rows.get(1).request()).isNull();
+        assertThat(rows.get(1).error()).isEqualTo("Invalid status: FAMOUS");
+    }
+
+    @Test
+    void readsNdjsonAndReportsMalformedLines() throws IOException {
+        List<CustomerImportReader.Row> rows = read(CustomerImportFormat.NDJSON,
+                "{\"firstName\":\"Ada\",\"lastName\":\"Lovelace\",\"email\":\"ada@example.com\",\"notes\":\"a, \\\"b\\\"\\nc\"}\n" +
+                "\n" +
+                "{not json}\r\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).request().notes()).isEqualTo("a, \"b\"\nc");
+        assertThat(rows.get(1).number()).isEqualTo(2);
+        assertThat(rows.get(1).error()).startsWith("Invalid JSON");
+    }
+
+    @Test
+    void returnsNothingForEmptyInput() throws IOException {
+        assertThat(readCsv("")).isEmpty();
+        assertThat(readCsv(HEADER)).isEmpty();
+    }
+
+    private static List<CustomerImportReader.Row> readCsv(String input) throws IOException {
+        return read(CustomerImportFormat.CSV, input);
+    }
+
+    private static List<CustomerImportReader.Row> read(CustomerImportFormat format, String input) throws IOException {
+        List<CustomerImportReader.Row> rows = new ArrayList<>();
+        try (CustomerImportReader reader = new CustomerImportReader(format, new ObjectMapper(),
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)))) {
+            CustomerImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,164 @@
+package com.org.crm.customer.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the V2 index plan: every selective {@link CustomerRepository} query shape must be
+ * planned without a sequential scan of {@code customers} on a seeded, analyzed table.
+ *
+ * The statements mirror the SQL Hibernate emits for each repository method, with the bind
+ * parameters inlined as PostgreSQL plans them for a custom plan. That only holds while the
+ * repository keeps optional filters out of its SQL: a {@code (:x IS NULL OR c.x = :x)}
+ * predicate cannot use an index under a generic plan, so each filter combination is its own
+ * query and is listed here. Queries that read the whole table by design (findAllSummaries,
+ * countGroupByStatusAndSource, streamAllEmails and streamAllForExport) are not listed.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class CustomerQueryPlanTest {
+
+    private static final int CUSTOMERS = 200_000;
+
+    private static final String SUMMARY = "SELECT c.id, c.first_name, c.last_name, c.email, c.phone, c.company, " +
+            "c.job_title, c.city, c.country, c.status, c.source, c.assigned_to, c.created_at, c.last_contact_date, " +
+            "c.total_orders, c.total_revenue FROM customers c";
+
+    private static final String SEARCH_DOCUMENT = "lower(coalesce(c.first_name, '') || ' ' || coalesce(c.last_name, '') || ' ' || " +
+            "coalesce(c.email, '') || ' ' || coalesce(c.company, ''))";
+
+    private static final String KEYSET_AFTER = "c.created_at <= '2022-01-01 00:00' AND " +
+            "(c.created_at < '2022-01-01 00:00' OR (c.created_at = '2022-01-01 00:00' AND c.id < 105264))";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15");
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration/customer")
+                .load()
+                .migrate();
+
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword()));
+        // Filtered values are rare (VIP 0.5%, TRADE_SHOW 0.2%, never contacted 0.1%) so an index is the right plan
+        jdbcTemplate.update("""
+                INSERT INTO customers (first_name, last_name, email, company, city, country, status, source,
+                                       assigned_to, created_at, updated_at, last_contact_date, total_orders, total_revenue)
+                SELECT 'First' || i, 'Last' || i, 'customer' || i || '@example.com', 'Acme ' || (i % 20000),
+                       'City ' || (i % 5000), 'Country ' || (i % 1000),
+                       CASE WHEN i % 200 = 0 THEN 'VIP'
+                            ELSE (ARRAY['ACTIVE', 'INACTIVE', 'PROSPECT', 'LEAD', 'CUSTOMER'])[i % 5 + 1] END,
+                       CASE WHEN i % 500 = 0 THEN 'TRADE_SHOW' ELSE 'WEBSITE' END,
+                       'rep' || (i % 500),
+                       TIMESTAMP '2020-01-01' + i * INTERVAL '10 minutes',
+                       TIMESTAMP '2020-01-01' + i * INTERVAL '10 minutes',
+                       CASE WHEN i % 1000 = 0 THEN NULL
+                            WHEN i % 1000 = 1 THEN TIMESTAMP '2019-01-01'
+                            ELSE TIMESTAMP '2024-01-01' - (i % 30) * INTERVAL '1 day' END,
+                       i % 50, (i % 1000000) / 10.0
+                FROM generate_series(1, ?) AS i
+                """, CUSTOMERS);
+        jdbcTemplate.execute("ANALYZE customers");
+    }
+
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                Arguments.of("findByEmail",
+                        "SELECT * FROM customers c WHERE c.email = 'customer777@example.com'"),
+                Arguments.of("existsByEmail",
+                        "SELECT c.id FROM customers c WHERE c.email = 'customer777@example.com' LIMIT 1"),
+                Arguments.of("findByStatus",
+                        "SELECT * FROM customers c WHERE c.status = 'VIP'"),
+                Arguments.of("findByAssignedTo",
+                        "SELECT * FROM customers c WHERE c.assigned_to = 'rep7'"),
+                Arguments.of("findSummariesByCompany",
+                        SUMMARY + " WHERE upper(c.company) LIKE upper('%' || 'acme 1234' || '%') ESCAPE '\\'"),
+                Arguments.of("findSummariesBySource",
+                        SUMMARY + " WHERE c.source = 'TRADE_SHOW'"),
+                Arguments.of("findByCreatedAtAfter",
+                        "SELECT * FROM customers c WHERE c.created_at > '2023-10-18'"),
+                Arguments.of("findSummariesByCreatedAtBetween",
+                        SUMMARY + " WHERE c.created_at BETWEEN '2021-01-01' AND '2021-01-02'"),
+                Arguments.of("findSummariesWithNoRecentContact",
+                        SUMMARY + " WHERE c.last_contact_date IS NULL OR c.last_contact_date < '2023-11-01'"),
+                Arguments.of("searchCustomerIds",
+                        "SELECT c.id FROM customers c WHERE " + SEARCH_DOCUMENT + " LIKE '%' || lower('First1234') || '%' ESCAPE '\\' " +
+                        "ORDER BY word_similarity(lower('First1234'), " + SEARCH_DOCUMENT + ") DESC, c.id LIMIT 20"),
+                Arguments.of("findSummariesByIds",
+                        SUMMARY + " WHERE c.id IN (11, 12, 13, 14, 15, 16, 17, 18, 19, 20)"),
+                Arguments.of("findSummariesByStatus (page)",
+                        SUMMARY + " WHERE c.status = 'VIP' LIMIT 20"),
+                Arguments.of("findKeysetFirst",
+                        SUMMARY + " ORDER BY c.created_at DESC, c.id DESC LIMIT 21"),
+                Arguments.of("findKeysetAfter",
+                        SUMMARY + " WHERE " + KEYSET_AFTER + " ORDER BY c.created_at DESC, c.id DESC LIMIT 21"),
+                Arguments.of("findKeysetFirstByStatus",
+                        SUMMARY + " WHERE c.status = 'VIP' ORDER BY c.created_at DESC, c.id DESC LIMIT 21"),
+                Arguments.of("findKeysetByStatusAfter",
+                        SUMMARY + " WHERE c.status = 'VIP' AND " + KEYSET_AFTER + " ORDER BY c.created_at DESC, c.id DESC LIMIT 21"),
+                Arguments.of("findKeysetFirstByAssignedTo",
+                        SUMMARY + " WHERE c.assigned_to = 'rep7' ORDER BY c.created_at DESC, c.id DESC LIMIT 21"),
+                Arguments.of("findKeysetByAssignedToAfter",
+                        SUMMARY + " WHERE c.assigned_to = 'rep7' AND " + KEYSET_AFTER + " ORDER BY c.created_at DESC, c.id DESC LIMIT 21"),
+                Arguments.of("countByAssignedTo",
+                        "SELECT count(*) FROM customers c WHERE c.assigned_to = 'rep7'"),
+                Arguments.of("countByStatus",
+                        "SELECT count(*) FROM customers c WHERE c.status = 'VIP'"),
+                Arguments.of("countBySource",
+                        "SELECT count(*) FROM customers c WHERE c.source = 'TRADE_SHOW'"),
+                Arguments.of("findByStatusOrderByTotalRevenueDesc",
+                        "SELECT * FROM customers c WHERE c.status = 'VIP' ORDER BY c.total_revenue DESC"),
+                Arguments.of("findTopCustomersByRevenue",
+                        SUMMARY + " ORDER BY c.total_revenue DESC LIMIT 20"),
+                Arguments.of("findSummariesByCity",
+                        SUMMARY + " WHERE upper(c.city) = upper('City 42')"),
+                Arguments.of("findSummariesByCountry",
+                        SUMMARY + " WHERE upper(c.country) = upper('Country 7')"),
+                Arguments.of("streamForExportByStatus",
+                        "SELECT * FROM customers c WHERE c.status = 'VIP' ORDER BY c.id"),
+                Arguments.of("streamForExportBySource",
+                        "SELECT * FROM customers c WHERE c.source = 'TRADE_SHOW' ORDER BY c.id"),
+                Arguments.of("streamForExportByStatusAndSource",
+                        "SELECT * FROM customers c WHERE c.status = 'VIP' AND c.source = 'TRADE_SHOW' ORDER BY c.id"),
+                Arguments.of("findIdsForBulkUpdateByStatus",
+                        "SELECT c.id FROM customers c WHERE c.status = 'VIP' AND c.id > 1000 ORDER BY c.id LIMIT 500"),
+                Arguments.of("findIdsForBulkUpdateByAssignedTo",
+                        "SELECT c.id FROM customers c WHERE c.assigned_to = 'rep7' AND c.id > 1000 ORDER BY c.id LIMIT 500"),
+                Arguments.of("findIdsForBulkUpdateByStatusAndAssignedTo",
+                        "SELECT c.id FROM customers c WHERE c.status = 'VIP' AND c.assigned_to = 'rep0' AND c.id > 1000 " +
+                        "ORDER BY c.id LIMIT 500"),
+                Arguments.of("lockByIds",
+                        "SELECT c.id FROM customers c WHERE c.id IN (11, 12, 13, 14, 15) ORDER BY c.id FOR UPDATE"),
+                Arguments.of("countGroupByStatusAndSourceForIds",
+                        "SELECT c.status, c.source, count(*) FROM customers c WHERE c.id IN (11, 12, 13, 14, 15) " +
+                        "GROUP BY c.status, c.source")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void queryDoesNotScanCustomersSequentially(String method, String sql) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+
+        assertThat(plan)
+                .as("plan of %s:%n%s", method, String.join(System.lineSeparator(), plan))
+                .noneMatch(line -> line.contains("Seq Scan on customers"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.org.crm.notification.broadcast;
+
+import com.org.crm.common.config.RabbitMQConfig;
+import com.org.crm.common.events.BaseEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Publishes events to every notification-service instance, including this one.
+ *
+ * Each instance receives them on its own anonymous queue (see
+ * {@code NotificationBroadcastConfig}) and skips the ones it sent itself,
+ * recognised by the instance id the events carry. Broadcasts are best effort:
+ * a failed send is logged, and the counters catch up when their entries expire.
+ */
+@Component
+@Slf4j
+public class NotificationBroadcaster {
+
+    public static final String ROUTING_KEY_PREFIX = "notification.events.";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public NotificationBroadcaster(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    /**
+     * Id stamped on the events this instance broadcasts
+     */
+    public String instanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Whether an event carrying the given instance id was sent by this instance
+     */
+    public boolean isLocal(String senderInstanceId) {
+        return instanceId.equals(senderInstanceId);
+    }
+
+    public void broadcast(BaseEvent event) {
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.CRM_EVENTS_EXCHANGE, ROUTING_KEY_PREFIX + event.getEventType(), event);
+        } catch (AmqpException e) {
+            log.warn("Failed to broadcast {} event {}", event.getEventType(), event.getEventId(), e);
+        }
+    }
+}
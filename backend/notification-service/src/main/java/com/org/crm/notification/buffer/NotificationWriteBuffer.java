@@ -0,0 +1,284 @@
+package com.org.crm.notification.buffer;
+
+import com.org.crm.notification.model.Notification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for notification inserts.
+ *
+ * Listener threads submit their notifications and wait on the returned future.
+ * A flusher thread gathers submissions until {@code flush-size} rows are pending
+ * or {@code flush-interval-ms} has passed, then writes them with one JDBC batch
+ * (rewritten into multi-row INSERTs by the driver) in a single transaction.
+ * Futures complete only after that commit, so listeners ack their messages
+ * only once the rows are durable. If a combined flush fails, each submission
+ * is retried on its own so one bad batch does not fail the others; a single
+ * submission that still fails is written row by row under savepoints, and rows
+ * the database rejects outright (e.g. a message too long for its column) are
+ * parked in {@code notification_dead_letters} instead of failing, and so
+ * endlessly redelivering, the whole consumer batch. Ids are reserved from the
+ * notifications sequence and set on the submitted entities, together with
+ * their timestamps, so callers can push them once committed.
+ */
+@Component
+@Slf4j
+public class NotificationWriteBuffer implements SmartLifecycle {
+
+    private static final String RESERVE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('notifications', 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (id, type, message, recipient, status, related_type, related_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String PARK_SQL =
+            "INSERT INTO notification_dead_letters (type, message, recipient, related_type, related_id, error) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Submission> pending = new LinkedBlockingQueue<>();
+    private final int flushSize;
+    private final long flushIntervalMs;
+
+    private final Timer flushLatency;
+    private final Counter flushedRows;
+    private final Counter failedRows;
+    private final Counter parkedRows;
+    private final DistributionSummary flushSizes;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public NotificationWriteBuffer(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${crm.notification.write-buffer.flush-size:500}") int flushSize,
+                                   @Value("${crm.notification.write-buffer.flush-interval-ms:200}") long flushIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.flushSize = flushSize;
+        this.flushIntervalMs = flushIntervalMs;
+
+        Gauge.builder("crm.notification.write-buffer.pending", pending, BlockingQueue::size)
+                .description("Submissions waiting for the next notification flush")
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("crm.notification.write-buffer.flush.latency")
+                .description("Time to insert and commit one notification flush")
+                .register(meterRegistry);
+        this.flushedRows = Counter.builder("crm.notification.write-buffer.flushed")
+                .description("Notifications inserted by the write-behind buffer")
+                .register(meterRegistry);
+        this.failedRows = Counter.builder("crm.notification.write-buffer.failed")
+                .description("Notifications whose insert failed")
+                .register(meterRegistry);
+        this.parkedRows = Counter.builder("crm.notification.write-buffer.parked")
+                .description("Notifications rejected by the database and parked in notification_dead_letters")
+                .register(meterRegistry);
+        this.flushSizes = DistributionSummary.builder("crm.notification.write-buffer.flush.size")
+                .description("Rows per notification flush")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue notifications for insertion; the future completes with the inserted rows
+     * once they are committed, leaving out any rows that were parked
+     */
+    public CompletableFuture<List<Notification>> submit(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        if (!running) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Notification write buffer is stopped"));
+        }
+        Submission submission = new Submission(notifications, new CompletableFuture<>());
+        pending.add(submission);
+        return submission.done();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = new Thread(this::run, "notification-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Stop accepting submissions and flush what is already queued
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (flusher == null) {
+            return;
+        }
+        try {
+            flusher.join(flushIntervalMs + 10000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        List<Submission> batch = new ArrayList<>();
+        while (running || !pending.isEmpty()) {
+            try {
+                Submission first = pending.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                int rows = first.notifications().size();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (rows < flushSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Submission next = remaining > 0 ? pending.poll(remaining, TimeUnit.NANOSECONDS) : pending.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    rows += next.notifications().size();
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(submission -> submission.done().completeExceptionally(e));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Submission> batch) {
+        List<Notification> rows = new ArrayList<>();
+        batch.forEach(submission -> rows.addAll(submission.notifications()));
+        try {
+            insert(rows);
+            batch.forEach(submission -> submission.done().complete(submission.notifications()));
+        } catch (DataAccessException e) {
+            if (batch.size() == 1) {
+                insertRowByRow(batch.get(0), e);
+                return;
+            }
+            log.warn("Notification flush of {} rows failed, retrying {} submissions separately: {}",
+                    rows.size(), batch.size(), e.getMessage());
+            for (Submission submission : batch) {
+                flush(List.of(submission));
+            }
+        }
+    }
+
+    private void insert(List<Notification> rows) {
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> write(rows));
+        flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        flushedRows.increment(rows.size());
+        flushSizes.record(rows.size());
+    }
+
+    /**
+     * Write one submission a row at a time in a single transaction, parking rows the
+     * database rejects; any other failure rolls everything back and fails the submission
+     */
+    private void insertRowByRow(Submission submission, DataAccessException cause) {
+        List<Notification> rows = submission.notifications();
+        log.warn("Notification flush of {} rows failed, retrying row by row: {}", rows.size(), cause.getMessage());
+        List<Notification> inserted = new ArrayList<>(rows.size());
+        List<Notification> parked = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Notification notification : rows) {
+                    Object savepoint = status.createSavepoint();
+                    try {
+                        write(List.of(notification));
+                        status.releaseSavepoint(savepoint);
+                        inserted.add(notification);
+                    } catch (DataIntegrityViolationException e) {
+                        status.rollbackToSavepoint(savepoint);
+                        park(notification, e);
+                        parked.add(notification);
+                    }
+                }
+            });
+        } catch (DataAccessException e) {
+            failedRows.increment(rows.size());
+            log.error("❌ Failed to flush {} notifications", rows.size(), e);
+            submission.done().completeExceptionally(e);
+            return;
+        }
+        flushedRows.increment(inserted.size());
+        parkedRows.increment(parked.size());
+        parked.forEach(notification -> notification.setId(null));
+        submission.done().complete(inserted);
+    }
+
+    private void write(List<Notification> rows) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Long> ids = jdbcTemplate.queryForList(RESERVE_IDS_SQL, Long.class, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Notification notification = rows.get(i);
+            notification.setId(ids.get(i));
+            notification.setCreatedAt(now);
+            notification.setUpdatedAt(now);
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, notification) -> {
+            ps.setLong(1, notification.getId());
+            ps.setString(2, notification.getType().name());
+            ps.setString(3, notification.getMessage());
+            ps.setString(4, notification.getRecipient());
+            ps.setString(5, notification.getStatus().name());
+            ps.setString(6, notification.getRelatedType());
+            if (notification.getRelatedId() != null) {
+                ps.setLong(7, notification.getRelatedId());
+            } else {
+                ps.setNull(7, Types.BIGINT);
+            }
+            ps.setTimestamp(8, timestamp);
+            ps.setTimestamp(9, timestamp);
+        });
+    }
+
+    private void park(Notification notification, DataIntegrityViolationException e) {
+        log.error("❌ Parking notification for {} rejected by the database: {}",
+                notification.getRecipient(), e.getMostSpecificCause().getMessage());
+        jdbcTemplate.update(PARK_SQL,
+                notification.getType() != null ? notification.getType().name() : null,
+                notification.getMessage(),
+                notification.getRecipient(),
+                notification.getRelatedType(),
+                notification.getRelatedId(),
+                e.getMostSpecificCause().getMessage());
+    }
+
+    private record Submission(List<Notification> notifications, CompletableFuture<List<Notification>> done) {}
+}
@@ -0,0 +1,33 @@
+package com.org.crm.notification.config;
+
+import com.org.crm.notification.broadcast.NotificationBroadcaster;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Messaging setup for events broadcast between notification-service instances.
+ * Every instance gets its own auto-delete queue receiving all notification events.
+ */
+@Configuration
+public class NotificationBroadcastConfig {
+
+    public static final String NOTIFICATION_BROADCAST_ROUTING_KEY = NotificationBroadcaster.ROUTING_KEY_PREFIX + "#";
+
+    @Bean
+    public Queue notificationBroadcastQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding notificationBroadcastBinding(Queue notificationBroadcastQueue, TopicExchange crmEventsExchange) {
+        return BindingBuilder
+                .bind(notificationBroadcastQueue)
+                .to(crmEventsExchange)
+                .with(NOTIFICATION_BROADCAST_ROUTING_KEY);
+    }
+}
@@ -0,0 +1,82 @@
+package com.org.crm.notification.config;
+
+import com.org.crm.common.config.RabbitMQConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Listener container configuration for the CRM event consumers.
+ *
+ * Consumers receive events in batches of up to {@code batch-size} messages
+ * (or whatever arrived within {@code receive-timeout-ms}) and each batch is
+ * acknowledged with a single multiple-ack once the listener returns. The
+ * container starts {@code concurrency} consumers and adds more, up to
+ * {@code max-concurrency}, while consumers keep receiving full batches, i.e.
+ * while the queues have a backlog; idle consumers are stopped again.
+ */
+@Configuration
+public class RabbitListenerConfig {
+
+    private static final List<String> EVENT_QUEUES = List.of(
+            RabbitMQConfig.CUSTOMER_EVENTS_QUEUE,
+            RabbitMQConfig.LEAD_EVENTS_QUEUE,
+            RabbitMQConfig.TASK_EVENTS_QUEUE,
+            RabbitMQConfig.OPPORTUNITY_EVENTS_QUEUE
+    );
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory notificationListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter eventMessageConverter,
+            @Value("${crm.notification.listener.concurrency:2}") int concurrency,
+            @Value("${crm.notification.listener.max-concurrency:8}") int maxConcurrency,
+            @Value("${crm.notification.listener.prefetch:250}") int prefetch,
+            @Value("${crm.notification.listener.batch-size:100}") int batchSize,
+            @Value("${crm.notification.listener.receive-timeout-ms:500}") long receiveTimeoutMs) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(eventMessageConverter);
+        factory.setAcknowledgeMode(AcknowledgeMode.AUTO);
+
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(maxConcurrency);
+        factory.setConsecutiveActiveTrigger(3);
+        factory.setStartConsumerMinInterval(5000L);
+        factory.setConsecutiveIdleTrigger(10);
+        factory.setStopConsumerMinInterval(30000L);
+
+        // Prefetch must cover at least one full batch or batches only close on the receive timeout
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        return factory;
+    }
+
+    /**
+     * Ready message count per event queue, for dashboards alongside crm.notification.events.consumed
+     */
+    @Bean
+    public MeterBinder eventQueueDepthMetrics(AmqpAdmin amqpAdmin) {
+        return registry -> EVENT_QUEUES.forEach(queue ->
+                Gauge.builder("crm.notification.queue.depth", amqpAdmin, admin -> {
+                            QueueInformation info = admin.getQueueInfo(queue);
+                            return info != null ? info.getMessageCount() : Double.NaN;
+                        })
+                        .description("Messages ready in the event queue")
+                        .tag("queue", queue)
+                        .register(registry));
+    }
+}
@@ -0,0 +1,46 @@
+package com.org.crm.notification.consumer;
+
+import com.org.crm.common.events.BaseEvent;
+import com.org.crm.common.events.NotificationEvents;
+import com.org.crm.notification.broadcast.NotificationBroadcaster;
+import com.org.crm.notification.counter.RecipientCounterStore;
+import com.org.crm.notification.push.NotificationPushService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies changes made on other notification-service instances: evicts their
+ * recipients' cached counters and pushes to the push connections held here
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationBroadcastConsumer {
+
+    private final NotificationBroadcaster notificationBroadcaster;
+    private final RecipientCounterStore recipientCounterStore;
+    private final NotificationPushService notificationPushService;
+
+    @RabbitListener(queues = "#{notificationBroadcastQueue.name}")
+    public void handleNotificationEvent(BaseEvent event) {
+        if (event instanceof NotificationEvents.RecipientCountersChangedEvent changed) {
+            if (notificationBroadcaster.isLocal(changed.getInstanceId())) {
+                return;
+            }
+            recipientCounterStore.applyRemoteChange(changed);
+            if (changed.getRecipients() != null) {
+                changed.getRecipients().forEach(notificationPushService::unreadChanged);
+            }
+        } else if (event instanceof NotificationEvents.NotificationsCreatedEvent created) {
+            if (notificationBroadcaster.isLocal(created.getInstanceId())) {
+                return;
+            }
+            notificationPushService.publishRemote(created.getNotificationIds(), created.getRecipients());
+        } else {
+            return;
+        }
+        log.debug("Applied broadcast event: {} - ID: {}", event.getEventType(), event.getEventId());
+    }
+}
@@ -1,67 +1,264 @@
 package com.org.crm.notification.consumer;
 
 import com.org.crm.common.events.BaseEvent;
+import com.org.crm.common.events.CustomerEvents;
+import com.org.crm.common.events.LeadEvents;
+import com.org.crm.common.events.OpportunityEvents;
+import com.org.crm.common.events.TaskEvents;
+import com.org.crm.common.messaging.EventDispatcher;
 import com.org.crm.notification.model.Notification;
+import com.org.crm.notification.recipient.NotificationDraft;
+import com.org.crm.notification.recipient.RecipientResolver;
+import com.org.crm.notification.recipient.UserRef;
 import com.org.crm.notification.service.NotificationService;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Consumer for CRM events to generate notifications
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class NotificationEventConsumer {
 
     private final NotificationService notificationService;
+    private final RecipientResolver recipientResolver;
+    private final EventDispatcher<NotificationDraft> dispatcher;
+    private final Counter consumedEvents;
+    private final DistributionSummary batchSizes;
+
+    public NotificationEventConsumer(NotificationService notificationService, RecipientResolver recipientResolver,
+                                     MeterRegistry meterRegistry) {
+        this.notificationService = notificationService;
+        this.recipientResolver = recipientResolver;
+        this.consumedEvents = Counter.builder("crm.notification.events.consumed")
+                .description("CRM events consumed by the notification listeners")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("crm.notification.batch.size")
+                .description("Events per consumer batch")
+                .register(meterRegistry);
+        this.dispatcher = EventDispatcher.<NotificationDraft>builder("notification", meterRegistry)
+                .on(CustomerEvents.CustomerCreatedEvent.class, this::onCustomerCreated)
+                .on(CustomerEvents.CustomerUpdatedEvent.class, this::onCustomerUpdated)
+                .on(CustomerEvents.CustomerDeletedEvent.class, this::onCustomerDeleted)
+                .on(CustomerEvents.CustomersBulkUpdatedEvent.class, this::onCustomersBulkUpdated)
+                .on(LeadEvents.LeadCreatedEvent.class, this::onLeadCreated)
+                .on(LeadEvents.LeadUpdatedEvent.class, this::onLeadUpdated)
+                .on(LeadEvents.LeadDeletedEvent.class, this::onLeadDeleted)
+                .on(LeadEvents.LeadConvertedEvent.class, this::onLeadConverted)
+                .on(LeadEvents.LeadStageChangedEvent.class, this::onLeadStageChanged)
+                .on(LeadEvents.LeadAssignedEvent.class, this::onLeadAssigned)
+                .on(LeadEvents.LeadClosedEvent.class, this::onLeadClosed)
+                .on(OpportunityEvents.OpportunityCreatedEvent.class, this::onOpportunityCreated)
+                .on(OpportunityEvents.OpportunityUpdatedEvent.class, this::onOpportunityUpdated)
+                .on(OpportunityEvents.OpportunityDeletedEvent.class, this::onOpportunityDeleted)
+                .on(OpportunityEvents.OpportunityWonEvent.class, this::onOpportunityWon)
+                .on(OpportunityEvents.OpportunityLostEvent.class, this::onOpportunityLost)
+                .on(TaskEvents.TaskCreatedEvent.class, this::onTaskCreated)
+                .on(TaskEvents.TaskAssignedEvent.class, this::onTaskAssigned)
+                .on(TaskEvents.TaskCompletedEvent.class, this::onTaskCompleted)
+                .on(TaskEvents.TaskDueSoonEvent.class, this::onTaskDueSoon)
+                .on(TaskEvents.TaskUpdatedEvent.class, this::onTaskUpdated)
+                .on(TaskEvents.TaskDeletedEvent.class, this::onTaskDeleted)
+                .otherwise(this::onOtherEvent)
+                .build();
+    }
 
-    @RabbitListener(queues = {"customer.events.queue", "lead.events.queue", "task.events.queue"})
-    public void handleCrmEvent(BaseEvent event) {
-        log.info("[NotificationEventConsumer] Received event: {} - ID: {} - Source: {} - Timestamp: {}", 
-                event.getEventType(), event.getEventId(), event.getSource(), event.getTimestamp());
+    /**
+     * Receives events in consumer batches. Recipients for the whole batch are resolved
+     * together, one notification per owning user. The batch is acked only after its notifications
+     * are flushed; rows the database rejects are parked by the write buffer, and any other
+     * failed flush throws so the container requeues the batch.
+     */
+    @RabbitListener(queues = {"customer.events.queue", "lead.events.queue", "task.events.queue", "opportunity.events.queue"},
+                    containerFactory = "notificationListenerContainerFactory")
+    public void handleCrmEvents(List<BaseEvent> events) {
+        log.debug("[NotificationEventConsumer] Received batch of {} events", events.size());
+        batchSizes.record(events.size());
         
-        try {
-            // Create notification based on event type
-            Notification.NotificationType notificationType = getNotificationType(event.getEventType());
-            String message = buildNotificationMessage(event);
-            
-            notificationService.createNotification(
-                new NotificationService.CreateNotificationRequest(
-                    notificationType,
-                    message,
-                    "admin@crm.com", // Default recipient - can be enhanced later
-                    event.getEventType(),
-                    null
-                )
-            );
-            
-            log.info("✅ Notification saved for event: {} - {}", event.getEventType(), event.getEventId());
-            
-        } catch (Exception e) {
-            log.error("❌ Failed to create notification for event: {}", event.getEventType(), e);
+        List<NotificationDraft> drafts = new ArrayList<>(events.size());
+        for (BaseEvent event : events) {
+            try {
+                drafts.add(dispatcher.dispatch(event));
+            } catch (Exception e) {
+                log.error("❌ Failed to build notification for event: {} - {}", event.getEventType(), event.getEventId(), e);
+            }
         }
+        
+        List<NotificationService.CreateNotificationRequest> requests = recipientResolver.fanOut(drafts);
+        notificationService.createNotifications(requests);
+        log.info("✅ {} notifications saved for batch of {} events", requests.size(), events.size());
+        consumedEvents.increment(events.size());
     }
-    
-    private Notification.NotificationType getNotificationType(String eventType) {
-        if (eventType.contains("CUSTOMER")) {
-            return Notification.NotificationType.CUSTOMER;
-        } else if (eventType.contains("LEAD")) {
-            return Notification.NotificationType.LEAD;
-        } else if (eventType.contains("TASK")) {
-            return Notification.NotificationType.TASK;
-        } else if (eventType.contains("OPPORTUNITY")) {
-            return Notification.NotificationType.OPPORTUNITY;
-        } else {
-            return Notification.NotificationType.INFO;
+
+    // Customer events
+
+    private NotificationDraft onCustomerCreated(CustomerEvents.CustomerCreatedEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.CUSTOMER,
+                String.format("New customer %s %s (%s) created", event.getFirstName(), event.getLastName(), event.getEmail()),
+                "CUSTOMER", event.getCustomerId(), user(event.getAssignedTo()));
+    }
+
+    private NotificationDraft onCustomerUpdated(CustomerEvents.CustomerUpdatedEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.CUSTOMER,
+                String.format("Customer %s %s (%s) updated", event.getFirstName(), event.getLastName(), event.getEmail()),
+                "CUSTOMER", event.getCustomerId(), user(event.getAssignedTo()));
+    }
+
+    private NotificationDraft onCustomerDeleted(CustomerEvents.CustomerDeletedEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.CUSTOMER,
+                String.format("Customer %s deleted", event.getEmail()),
+                "CUSTOMER", event.getCustomerId(), user(event.getAssignedTo()));
+    }
+
+    private NotificationDraft onCustomersBulkUpdated(CustomerEvents.CustomersBulkUpdatedEvent event) {
+        int count = event.getCustomerIds() != null ? event.getCustomerIds().size() : 0;
+        return NotificationDraft.of(Notification.NotificationType.CUSTOMER,
+                String.format("%d customers updated in bulk", count),
+                "CUSTOMER", null, user(event.getAssignedTo()));
+    }
+
+    // Lead events
+
+    private NotificationDraft onLeadCreated(LeadEvents.LeadCreatedEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.LEAD,
+                String.format("New lead %s %s from %s", event.getFirstName(), event.getLastName(), event.getCompany()),
+                "LEAD", event.getLeadId(), user(event.getAssignedTo()));
+    }
+
+    private NotificationDraft onLeadUpdated(LeadEvents.LeadUpdatedEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.LEAD,
+                String.format("Lead %s %s updated", event.getFirstName(), event.getLastName()),
+                "LEAD", event.getLeadId(), user(event.getAssignedTo()));
+    }
+
+    private NotificationDraft onLeadDeleted(LeadEvents.LeadDeletedEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.LEAD,
+                String.format("Lead %s deleted", event.getEmail()),
+                "LEAD", event.getLeadId());
+    }
+
+    private NotificationDraft onLeadConverted(LeadEvents.LeadConvertedEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.LEAD,
+                String.format("Lead %s converted to customer %d", event.getEmail(), event.getCustomerId()),
+                "LEAD", event.getLeadId()).withCustomerOwner(event.getCustomerId());
+    }
+
+    private NotificationDraft onLeadStageChanged(LeadEvents.LeadStageChangedEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.LEAD,
+                String.format("Lead %d moved from %s to %s", event.getLeadId(), event.getOldStage(), event.getNewStage()),
+                "LEAD", event.getLeadId(), UserRef.ofId(event.getAssignedTo())).withCustomerOwner(event.getCustomerId());
+    }
+
+    private NotificationDraft onLeadAssigned(LeadEvents.LeadAssignedEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.LEAD,
+                String.format("Lead %d assigned to user %d", event.getLeadId(), event.getNewAssignedTo()),
+                "LEAD", event.getLeadId(), UserRef.ofId(event.getNewAssignedTo()), UserRef.ofId(event.getOldAssignedTo())).withCustomerOwner(event.getCustomerId());
+    }
+
+    private NotificationDraft onLeadClosed(LeadEvents.LeadClosedEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.LEAD,
+                String.format("Lead %d closed as %s", event.getLeadId(), event.getStage()),
+                "LEAD", event.getLeadId(), UserRef.ofId(event.getAssignedTo())).withCustomerOwner(event.getCustomerId());
+    }
+
+    // Opportunity events
+
+    private NotificationDraft onOpportunityCreated(OpportunityEvents.OpportunityCreatedEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.OPPORTUNITY,
+                String.format("New opportunity %s worth %s", event.getName(), event.getAmount()),
+                "OPPORTUNITY", event.getOpportunityId(), user(event.getAssignedTo())).withCustomerOwner(customerId(event.getCustomerId()));
+    }
+
+    private NotificationDraft onOpportunityUpdated(OpportunityEvents.OpportunityUpdatedEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.OPPORTUNITY,
+                String.format("Opportunity %s updated (stage %s)", event.getName(), event.getStage()),
+                "OPPORTUNITY", event.getOpportunityId(), user(event.getAssignedTo())).withCustomerOwner(customerId(event.getCustomerId()));
+    }
+
+    private NotificationDraft onOpportunityDeleted(OpportunityEvents.OpportunityDeletedEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.OPPORTUNITY,
+                String.format("Opportunity %s deleted", event.getName()),
+                "OPPORTUNITY", event.getOpportunityId());
+    }
+
+    private NotificationDraft onOpportunityWon(OpportunityEvents.OpportunityWonEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.OPPORTUNITY,
+                String.format("Opportunity %s won for %s", event.getName(), event.getAmount()),
+                "OPPORTUNITY", event.getOpportunityId()).withCustomerOwner(customerId(event.getCustomerId()));
+    }
+
+    private NotificationDraft onOpportunityLost(OpportunityEvents.OpportunityLostEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.OPPORTUNITY,
+                String.format("Opportunity %s lost: %s", event.getName(), event.getReason()),
+                "OPPORTUNITY", event.getOpportunityId()).withCustomerOwner(customerId(event.getCustomerId()));
+    }
+
+    // Task events
+
+    private NotificationDraft onTaskCreated(TaskEvents.TaskCreatedEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.TASK,
+                String.format("New task \"%s\" due %s", event.getTitle(), event.getDueDate()),
+                "TASK", event.getTaskId(), user(event.getAssignedTo())).withCustomerOwner(event.getCustomerId());
+    }
+
+    private NotificationDraft onTaskAssigned(TaskEvents.TaskAssignedEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.TASK,
+                String.format("Task \"%s\" assigned to %s", event.getTitle(), event.getNewAssignedTo()),
+                "TASK", event.getTaskId(), user(event.getNewAssignedTo()), user(event.getOldAssignedTo()));
+    }
+
+    private NotificationDraft onTaskCompleted(TaskEvents.TaskCompletedEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.TASK,
+                String.format("Task \"%s\" completed", event.getTitle()),
+                "TASK", event.getTaskId(), user(event.getAssignedTo()));
+    }
+
+    private NotificationDraft onTaskDueSoon(TaskEvents.TaskDueSoonEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.ALERT,
+                String.format("Task \"%s\" is due %s", event.getTitle(), event.getDueDate()),
+                "TASK", event.getTaskId(), user(event.getAssignedTo()));
+    }
+
+    private NotificationDraft onTaskUpdated(TaskEvents.TaskUpdatedEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.TASK,
+                String.format("Task \"%s\" updated", event.getTitle()),
+                "TASK", event.getTaskId(), user(event.getAssignedTo())).withCustomerOwner(event.getCustomerId());
+    }
+
+    private NotificationDraft onTaskDeleted(TaskEvents.TaskDeletedEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.TASK,
+                String.format("Task \"%s\" deleted", event.getTitle()),
+                "TASK", event.getTaskId(), user(event.getAssignedTo()));
+    }
+
+    private NotificationDraft onOtherEvent(BaseEvent event) {
+        return NotificationDraft.of(Notification.NotificationType.INFO,
+                String.format("Event %s occurred at %s", event.getEventType(), event.getTimestamp()),
+                event.getEventType(), null);
+    }
+
+    /**
+     * Event user fields hold either a username or a numeric user id
+     */
+    private static UserRef user(String value) {
+        if (value != null && !value.isBlank() && value.chars().allMatch(Character::isDigit)) {
+            return UserRef.ofId(Long.valueOf(value));
         }
+        return UserRef.ofUsername(value);
     }
-    
-    private String buildNotificationMessage(BaseEvent event) {
-        return String.format("Event %s occurred at %s", 
-                event.getEventType(), 
-                event.getTimestamp());
+
+    private static Long customerId(String value) {
+        if (value == null || value.isBlank() || !value.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        return Long.valueOf(value);
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.org.crm.notification.controller;
 
 import com.org.crm.notification.model.Notification;
+import com.org.crm.notification.push.NotificationPushService;
 import com.org.crm.notification.service.NotificationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -8,12 +9,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -30,6 +33,7 @@ import java.util.Optional;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationPushService notificationPushService;
 
     @PostMapping
     @Operation(summary = "Create a new notification", description = "Creates a new notification")
@@ -62,6 +66,27 @@ public class NotificationController {
         }
     }
 
+    @PatchMapping("/{id}/archive")
+    @Operation(summary = "Archive notification", description = "Archives a notification")
+    public ResponseEntity<NotificationService.NotificationResponse> archive(
+            @Parameter(description = "Notification ID") @PathVariable Long id) {
+        try {
+            NotificationService.NotificationResponse response = notificationService.archive(id);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            log.error("Error archiving notification: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PatchMapping("/recipient/{recipient}/read")
+    @Operation(summary = "Mark all notifications as read", description = "Marks every unread notification of a recipient as read")
+    public ResponseEntity<Integer> markAllAsRead(
+            @Parameter(description = "Recipient") @PathVariable String recipient) {
+        int updated = notificationService.markAllAsRead(recipient);
+        return ResponseEntity.ok(updated);
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete notification", description = "Deletes a notification by its ID")
     public ResponseEntity<Void> deleteNotification(
@@ -72,34 +97,42 @@ public class NotificationController {
 
     @GetMapping("/recipient/{recipient}")
     @Operation(summary = "Get notifications by recipient", description = "Retrieves notifications for a recipient with pagination")
-    public ResponseEntity<Page<NotificationService.NotificationResponse>> getNotificationsByRecipient(
+    public ResponseEntity<Slice<NotificationService.NotificationResponse>> getNotificationsByRecipient(
             @Parameter(description = "Recipient") @PathVariable String recipient,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<NotificationService.NotificationResponse> notifications = notificationService.getNotificationsByRecipient(recipient, pageable);
+        Slice<NotificationService.NotificationResponse> notifications = notificationService.getNotificationsByRecipient(recipient, pageable);
         return ResponseEntity.ok(notifications);
     }
 
+    @GetMapping(value = "/stream/{recipient}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream notifications for a recipient",
+               description = "Server-Sent Events stream of new notifications and unread counts; replaces polling")
+    public SseEmitter streamNotifications(
+            @Parameter(description = "Recipient") @PathVariable String recipient) {
+        return notificationPushService.subscribe(recipient);
+    }
+
     @GetMapping("/status/{status}")
     @Operation(summary = "Get notifications by status", description = "Retrieves notifications by status with pagination")
-    public ResponseEntity<Page<NotificationService.NotificationResponse>> getNotificationsByStatus(
+    public ResponseEntity<Slice<NotificationService.NotificationResponse>> getNotificationsByStatus(
             @Parameter(description = "Notification status") @PathVariable Notification.NotificationStatus status,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<NotificationService.NotificationResponse> notifications = notificationService.getNotificationsByStatus(status, pageable);
+        Slice<NotificationService.NotificationResponse> notifications = notificationService.getNotificationsByStatus(status, pageable);
         return ResponseEntity.ok(notifications);
     }
 
     @GetMapping("/type/{type}")
     @Operation(summary = "Get notifications by type", description = "Retrieves notifications by type with pagination")
-    public ResponseEntity<Page<NotificationService.NotificationResponse>> getNotificationsByType(
+    public ResponseEntity<Slice<NotificationService.NotificationResponse>> getNotificationsByType(
             @Parameter(description = "Notification type") @PathVariable Notification.NotificationType type,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        Page<NotificationService.NotificationResponse> notifications = notificationService.getNotificationsByType(type, pageable);
+        Slice<NotificationService.NotificationResponse> notifications = notificationService.getNotificationsByType(type, pageable);
         return ResponseEntity.ok(notifications);
     }
 
@@ -138,6 +171,14 @@ public class NotificationController {
         return ResponseEntity.ok(count);
     }
 
+    @GetMapping("/count/unread/recipient/{recipient}")
+    @Operation(summary = "Get unread notification count by recipient", description = "Retrieves the count of unread notifications for a recipient")
+    public ResponseEntity<Long> getUnreadCountByRecipient(
+            @Parameter(description = "Recipient") @PathVariable String recipient) {
+        long count = notificationService.getUnreadCountByRecipient(recipient);
+        return ResponseEntity.ok(count);
+    }
+
     @GetMapping("/count/status/{status}")
     @Operation(summary = "Get notification count by status", description = "Retrieves the count of notifications by status")
     public ResponseEntity<Long> getNotificationCountByStatus(
@@ -0,0 +1,250 @@
+package com.org.crm.notification.counter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.org.crm.common.events.NotificationEvents;
+import com.org.crm.notification.broadcast.NotificationBroadcaster;
+import com.org.crm.notification.model.Notification;
+import com.org.crm.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory total/unread notification counters per recipient.
+ *
+ * A recipient's counters are loaded with one aggregate query on first read and
+ * then adjusted after each committed create, status change and delete, so
+ * badge counts are served from memory. The cache is bounded and evicts idle
+ * recipients; entries are also reloaded after {@code expire-after-write-ms} as
+ * a backstop.
+ *
+ * Deltas and loads are ordered per recipient stripe: a write marks its stripe
+ * busy until its transaction completes and applies its delta with
+ * {@code computeIfPresent}, which waits for a load of the same recipient in
+ * progress. A load that overlapped a busy or newly started write cannot tell
+ * whether its query saw that write, so its result is returned but not cached.
+ * Writes committed before the store hears of them, outside a transaction or
+ * by the write buffer, evict the recipient instead.
+ *
+ * Every instance keeps its own counters, so after a commit the changed
+ * recipients are broadcast and the other instances evict them and push the new
+ * unread counts to the connections they hold.
+ */
+@Component
+public class RecipientCounterStore {
+
+    private static final int STRIPES = 64;
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationBroadcaster notificationBroadcaster;
+    private final Cache<String, Counters> counters;
+    /** Writes per stripe whose transaction has not completed yet */
+    private final AtomicIntegerArray writesInFlight = new AtomicIntegerArray(STRIPES);
+    /** Writes per stripe ever started, so a load can see that one began while it ran */
+    private final AtomicLongArray writesStarted = new AtomicLongArray(STRIPES);
+
+    public RecipientCounterStore(NotificationRepository notificationRepository,
+                                 NotificationBroadcaster notificationBroadcaster,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${crm.notification.counters.maximum-size:100000}") long maximumSize,
+                                 @Value("${crm.notification.counters.expire-after-access-ms:1800000}") long expireAfterAccessMs,
+                                 @Value("${crm.notification.counters.expire-after-write-ms:3600000}") long expireAfterWriteMs) {
+        this.notificationRepository = notificationRepository;
+        this.notificationBroadcaster = notificationBroadcaster;
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(Duration.ofMillis(expireAfterAccessMs))
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counters, "notification.recipient-counters");
+    }
+
+    /**
+     * Current counts of the recipient, loading them from the database on a miss
+     */
+    public RecipientCounts get(String recipient) {
+        RecipientCounts[] uncached = new RecipientCounts[1];
+        Counters current = counters.get(recipient, key -> load(key, uncached));
+        if (current == null) {
+            return uncached[0];
+        }
+        return new RecipientCounts(current.total.get(), Math.max(0, current.unread.get()));
+    }
+
+    /**
+     * Count newly created notifications once the surrounding transaction commits
+     */
+    public void recordCreated(List<Notification> notifications) {
+        Map<String, long[]> deltas = new HashMap<>();
+        for (Notification notification : notifications) {
+            long[] delta = deltas.computeIfAbsent(notification.getRecipient(), key -> new long[2]);
+            delta[0]++;
+            if (notification.getStatus() == Notification.NotificationStatus.UNREAD) {
+                delta[1]++;
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        afterCommit(deltas.keySet(), () -> deltas.forEach((recipient, delta) -> adjust(recipient, delta[0], delta[1])));
+    }
+
+    /**
+     * Account for notifications whose rows are already committed, e.g. by the
+     * write buffer. A load may have counted them by now, so instead of applying
+     * a delta the recipients are evicted here and on the other instances.
+     */
+    public void recordCommitted(List<Notification> notifications) {
+        List<String> recipients = notifications.stream().map(Notification::getRecipient).distinct().toList();
+        if (recipients.isEmpty()) {
+            return;
+        }
+        drop(recipients);
+        broadcast(recipients);
+    }
+
+    /**
+     * Record status changes of {@code count} notifications once the surrounding transaction commits
+     */
+    public void recordStatusChanged(String recipient, Notification.NotificationStatus from,
+                                    Notification.NotificationStatus to, long count) {
+        long unreadDelta = unread(to) - unread(from);
+        if (unreadDelta == 0 || count == 0) {
+            return;
+        }
+        afterCommit(List.of(recipient), () -> adjust(recipient, 0, unreadDelta * count));
+    }
+
+    /**
+     * Record a deleted notification once the surrounding transaction commits
+     */
+    public void recordDeleted(String recipient, Notification.NotificationStatus status) {
+        afterCommit(List.of(recipient), () -> adjust(recipient, -1, -unread(status)));
+    }
+
+    /**
+     * Drop all counters so they are reloaded on next read, e.g. after bulk
+     * deletes, here and on the other instances
+     */
+    public void invalidateAll() {
+        dropAll();
+        broadcast(null);
+    }
+
+    /**
+     * Drop the counters another instance reported as changed
+     */
+    public void applyRemoteChange(NotificationEvents.RecipientCountersChangedEvent event) {
+        if (event.getRecipients() == null) {
+            dropAll();
+        } else {
+            drop(event.getRecipients());
+        }
+    }
+
+    private void adjust(String recipient, long totalDelta, long unreadDelta) {
+        counters.asMap().computeIfPresent(recipient, (key, current) -> {
+            current.total.addAndGet(totalDelta);
+            current.unread.addAndGet(unreadDelta);
+            return current;
+        });
+    }
+
+    /**
+     * Runs inside the cache's compute for the recipient. Reads the stripe's
+     * started count before the in-flight count; a write increments them in the
+     * opposite order, so any write the query might have missed, or might have
+     * seen before its delta arrives, is detected and the result is not cached.
+     */
+    private Counters load(String recipient, RecipientCounts[] uncached) {
+        int stripe = stripe(recipient);
+        long startedBefore = writesStarted.get(stripe);
+        boolean quiet = writesInFlight.get(stripe) == 0;
+        RecipientCounts counts = notificationRepository.countsByRecipient(recipient, Notification.NotificationStatus.UNREAD);
+        if (!quiet || writesStarted.get(stripe) != startedBefore) {
+            uncached[0] = counts;
+            return null;
+        }
+        return new Counters(counts.total(), counts.unread());
+    }
+
+    private void drop(Collection<String> recipients) {
+        recipients.forEach(recipient -> writesStarted.incrementAndGet(stripe(recipient)));
+        counters.invalidateAll(recipients);
+    }
+
+    private void dropAll() {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            writesStarted.incrementAndGet(stripe);
+        }
+        counters.invalidateAll();
+    }
+
+    private static long unread(Notification.NotificationStatus status) {
+        return status == Notification.NotificationStatus.UNREAD ? 1 : 0;
+    }
+
+    private static int stripe(String recipient) {
+        return Math.floorMod(recipient.hashCode(), STRIPES);
+    }
+
+    private void afterCommit(Collection<String> recipients, Runnable update) {
+        int[] stripes = recipients.stream().mapToInt(RecipientCounterStore::stripe).distinct().toArray();
+        List<String> changed = List.copyOf(recipients);
+        // Synchronization is also active without a transaction, e.g. under NOT_SUPPORTED
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Already committed: a load may have seen the rows, so a delta could count them twice
+            drop(changed);
+            broadcast(changed);
+            return;
+        }
+        for (int stripe : stripes) {
+            writesInFlight.incrementAndGet(stripe);
+            writesStarted.incrementAndGet(stripe);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+                broadcast(changed);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                for (int stripe : stripes) {
+                    writesInFlight.decrementAndGet(stripe);
+                }
+            }
+        });
+    }
+
+    private void broadcast(List<String> recipients) {
+        notificationBroadcaster.broadcast(new NotificationEvents.RecipientCountersChangedEvent(
+                notificationBroadcaster.instanceId(), recipients));
+    }
+
+    private static final class Counters {
+        private final AtomicLong total;
+        private final AtomicLong unread;
+
+        private Counters(long total, long unread) {
+            this.total = new AtomicLong(total);
+            this.unread = new AtomicLong(unread);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.org.crm.notification.counter;
+
+/**
+ * Total and unread notification counts of one recipient
+ */
+public record RecipientCounts(long total, long unread) {}
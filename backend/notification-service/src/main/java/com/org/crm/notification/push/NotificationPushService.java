@@ -0,0 +1,243 @@
+package com.org.crm.notification.push;
+
+import com.org.crm.common.events.NotificationEvents;
+import com.org.crm.notification.broadcast.NotificationBroadcaster;
+import com.org.crm.notification.counter.RecipientCounterStore;
+import com.org.crm.notification.model.Notification;
+import com.org.crm.notification.repository.NotificationRepository;
+import com.org.crm.notification.service.NotificationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-Sent Events push of new notifications and unread counts.
+ *
+ * Clients subscribe per recipient and keep one long-lived connection open
+ * instead of polling. The registry keeps the open emitters per recipient; unread
+ * counts come from the {@link RecipientCounterStore}, so pushes never query the
+ * database. Sends run on virtual threads so
+ * a slow client never blocks the notification flush, and a periodic heartbeat
+ * detects dead connections behind proxies.
+ *
+ * A client is connected to one instance, while notifications are written by
+ * whichever instance consumed the event or served the request. Created
+ * notifications are therefore broadcast to the other instances by id, and
+ * unread changes reach them through the recipient counter broadcast; both are
+ * delivered to the connections each instance holds.
+ */
+@Component
+@Slf4j
+public class NotificationPushService {
+
+    static final String NOTIFICATION_EVENT = "notification";
+    static final String UNREAD_EVENT = "unread";
+
+    private final RecipientCounterStore recipientCounterStore;
+    private final NotificationRepository notificationRepository;
+    private final NotificationBroadcaster notificationBroadcaster;
+    private final Map<String, Set<SseEmitter>> channels = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong connections = new AtomicLong();
+    private final Counter pushed;
+    private final long emitterTimeoutMs;
+
+    public NotificationPushService(RecipientCounterStore recipientCounterStore,
+                                   NotificationRepository notificationRepository,
+                                   NotificationBroadcaster notificationBroadcaster,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${crm.notification.push.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.recipientCounterStore = recipientCounterStore;
+        this.notificationRepository = notificationRepository;
+        this.notificationBroadcaster = notificationBroadcaster;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        Gauge.builder("crm.notification.push.connections", connections, AtomicLong::get)
+                .description("Open notification push connections")
+                .register(meterRegistry);
+        Gauge.builder("crm.notification.push.recipients", channels, Map::size)
+                .description("Recipients with at least one open push connection")
+                .register(meterRegistry);
+        this.pushed = Counter.builder("crm.notification.push.sent")
+                .description("Notifications pushed to connected clients")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a push connection for the recipient; the current unread count is sent first
+     */
+    public SseEmitter subscribe(String recipient) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        channels.compute(recipient, (key, existing) -> {
+            Set<SseEmitter> emitters = existing != null ? existing : ConcurrentHashMap.newKeySet();
+            emitters.add(emitter);
+            return emitters;
+        });
+        connections.incrementAndGet();
+
+        Runnable remove = () -> unsubscribe(recipient, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+
+        senders.execute(() -> send(recipient, emitter, UNREAD_EVENT, recipientCounterStore.get(recipient).unread()));
+        log.debug("Push subscription opened for {}", recipient);
+        return emitter;
+    }
+
+    /**
+     * Push newly created notifications to their connected recipients, on this
+     * and the other instances, once the surrounding transaction commits
+     */
+    public void publish(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            push(notifications, true);
+            notificationBroadcaster.broadcast(new NotificationEvents.NotificationsCreatedEvent(
+                    notificationBroadcaster.instanceId(),
+                    notifications.stream().map(Notification::getId).toList(),
+                    notifications.stream().map(Notification::getRecipient).distinct().toList()));
+        });
+    }
+
+    /**
+     * Push notifications created on another instance to the recipients connected
+     * here; their unread counts follow with the counter broadcast
+     */
+    public void publishRemote(List<Long> notificationIds, List<String> recipients) {
+        if (notificationIds == null || recipients == null || recipients.stream().noneMatch(channels::containsKey)) {
+            return;
+        }
+        List<Notification> notifications = new ArrayList<>(notificationRepository.findAllById(notificationIds));
+        notifications.sort(Comparator.comparing(Notification::getId));
+        push(notifications, false);
+    }
+
+    /**
+     * Push the current unread count to a connected recipient once the surrounding transaction commits
+     */
+    public void unreadChanged(String recipient) {
+        afterCommit(() -> {
+            Set<SseEmitter> emitters = channels.get(recipient);
+            if (emitters == null) {
+                return;
+            }
+            long unread = recipientCounterStore.get(recipient).unread();
+            for (SseEmitter emitter : emitters) {
+                senders.execute(() -> send(recipient, emitter, UNREAD_EVENT, unread));
+            }
+        });
+    }
+
+    /**
+     * Keep idle connections open through proxies and drop the ones that are gone
+     */
+    @Scheduled(fixedDelayString = "${crm.notification.push.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        channels.forEach((recipient, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                senders.execute(() -> {
+                    try {
+                        synchronized (emitter) {
+                            emitter.send(SseEmitter.event().comment("heartbeat"));
+                        }
+                    } catch (IOException | IllegalStateException e) {
+                        unsubscribe(recipient, emitter);
+                    }
+                });
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        senders.shutdown();
+    }
+
+    private void push(List<Notification> notifications, boolean withUnread) {
+        Map<String, List<Notification>> byRecipient = new LinkedHashMap<>();
+        for (Notification notification : notifications) {
+            if (channels.containsKey(notification.getRecipient())) {
+                byRecipient.computeIfAbsent(notification.getRecipient(), key -> new ArrayList<>()).add(notification);
+            }
+        }
+        byRecipient.forEach((recipient, created) -> {
+            Set<SseEmitter> emitters = channels.get(recipient);
+            if (emitters == null) {
+                return;
+            }
+            Long unread = withUnread ? recipientCounterStore.get(recipient).unread() : null;
+            List<NotificationService.NotificationResponse> payload = created.stream()
+                    .map(NotificationService.NotificationResponse::fromNotification)
+                    .toList();
+            for (SseEmitter emitter : emitters) {
+                senders.execute(() -> {
+                    if (send(recipient, emitter, NOTIFICATION_EVENT, payload)) {
+                        pushed.increment(payload.size());
+                        if (unread != null) {
+                            send(recipient, emitter, UNREAD_EVENT, unread);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private boolean send(String recipient, SseEmitter emitter, String name, Object data) {
+        try {
+            synchronized (emitter) {
+                emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+            }
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping push connection for {}: {}", recipient, e.getMessage());
+            unsubscribe(recipient, emitter);
+            return false;
+        }
+    }
+
+    private void unsubscribe(String recipient, SseEmitter emitter) {
+        channels.computeIfPresent(recipient, (key, emitters) -> {
+            if (emitters.remove(emitter)) {
+                connections.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.org.crm.notification.recipient;
+
+import com.org.crm.notification.model.Notification;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Notification built from an event before its recipients are resolved.
+ *
+ * @param users           users named by the event (assignee, old/new assignee)
+ * @param ownerOfCustomer customer whose owner should also be notified, or null
+ */
+public record NotificationDraft(
+        Notification.NotificationType type,
+        String message,
+        String relatedType,
+        Long relatedId,
+        List<UserRef> users,
+        Long ownerOfCustomer
+) {
+
+    public static NotificationDraft of(Notification.NotificationType type, String message,
+                                       String relatedType, Long relatedId, UserRef... users) {
+        return new NotificationDraft(type, message, relatedType, relatedId,
+                Arrays.stream(users).filter(Objects::nonNull).toList(), null);
+    }
+
+    /**
+     * Also notify the owner (assignee) of the given customer
+     */
+    public NotificationDraft withCustomerOwner(Long customerId) {
+        return new NotificationDraft(type, message, relatedType, relatedId, users, customerId);
+    }
+}
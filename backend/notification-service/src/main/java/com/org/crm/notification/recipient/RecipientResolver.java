@@ -0,0 +1,88 @@
+package com.org.crm.notification.recipient;
+
+import com.org.crm.notification.service.NotificationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns notification drafts into one notification request per recipient.
+ *
+ * All users and customer owners referenced by a batch of drafts are resolved
+ * through the {@link UserDirectory} in at most two lookups. Usernames that are
+ * already email addresses are used as-is when the directory does not know
+ * them; drafts with no resolvable recipient go to the fallback recipient.
+ */
+@Component
+@Slf4j
+public class RecipientResolver {
+
+    private final UserDirectory userDirectory;
+    private final String fallbackRecipient;
+
+    public RecipientResolver(UserDirectory userDirectory,
+                             @Value("${crm.notification.recipients.fallback:admin@crm.com}") String fallbackRecipient) {
+        this.userDirectory = userDirectory;
+        this.fallbackRecipient = fallbackRecipient;
+    }
+
+    public List<NotificationService.CreateNotificationRequest> fanOut(List<NotificationDraft> drafts) {
+        Set<Long> customerIds = new HashSet<>();
+        for (NotificationDraft draft : drafts) {
+            if (draft.ownerOfCustomer() != null) {
+                customerIds.add(draft.ownerOfCustomer());
+            }
+        }
+        Map<Long, String> owners = customerIds.isEmpty() ? Map.of() : userDirectory.customerOwners(customerIds);
+
+        List<List<UserRef>> usersByDraft = new ArrayList<>(drafts.size());
+        Set<UserRef> allUsers = new HashSet<>();
+        for (NotificationDraft draft : drafts) {
+            List<UserRef> users = new ArrayList<>(draft.users());
+            if (draft.ownerOfCustomer() != null) {
+                UserRef owner = UserRef.ofUsername(owners.get(draft.ownerOfCustomer()));
+                if (owner != null) {
+                    users.add(owner);
+                }
+            }
+            usersByDraft.add(users);
+            allUsers.addAll(users);
+        }
+        Map<UserRef, String> emails = allUsers.isEmpty() ? Map.of() : userDirectory.emails(allUsers);
+
+        List<NotificationService.CreateNotificationRequest> requests = new ArrayList<>(drafts.size());
+        for (int i = 0; i < drafts.size(); i++) {
+            NotificationDraft draft = drafts.get(i);
+            Set<String> recipients = new LinkedHashSet<>();
+            for (UserRef user : usersByDraft.get(i)) {
+                String email = emails.get(user);
+                if (email == null && user.username() != null && user.username().contains("@")) {
+                    email = user.username();
+                }
+                if (email != null) {
+                    recipients.add(email);
+                }
+            }
+            if (recipients.isEmpty()) {
+                recipients.add(fallbackRecipient);
+            }
+            for (String recipient : recipients) {
+                requests.add(new NotificationService.CreateNotificationRequest(
+                        draft.type(),
+                        draft.message(),
+                        recipient,
+                        draft.relatedType(),
+                        draft.relatedId()
+                ));
+            }
+        }
+        return requests;
+    }
+}
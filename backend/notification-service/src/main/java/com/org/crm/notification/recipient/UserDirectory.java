@@ -0,0 +1,125 @@
+package com.org.crm.notification.recipient;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Cached lookups of user emails and customer owners.
+ *
+ * Reads the auth-service users table and the customer-service customers table
+ * in the shared CRM database. Misses are loaded with one IN query per batch
+ * and negative results are cached too, so unknown assignees cost one query
+ * per TTL rather than one per event.
+ */
+@Component
+@Slf4j
+public class UserDirectory {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Cache<UserRef, Optional<String>> emailsByUser;
+    private final Cache<Long, Optional<String>> ownersByCustomer;
+
+    public UserDirectory(NamedParameterJdbcTemplate jdbcTemplate,
+                         MeterRegistry meterRegistry,
+                         @Value("${crm.notification.directory.maximum-size:20000}") long maximumSize,
+                         @Value("${crm.notification.directory.expire-after-write-ms:300000}") long expireAfterWriteMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.emailsByUser = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+        this.ownersByCustomer = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, emailsByUser, "notification.user-emails");
+        CaffeineCacheMetrics.monitor(meterRegistry, ownersByCustomer, "notification.customer-owners");
+    }
+
+    /**
+     * Email addresses of the given users; unknown users are absent from the result
+     */
+    public Map<UserRef, String> emails(Collection<UserRef> users) {
+        Map<UserRef, Optional<String>> found = emailsByUser.getAll(users, this::loadEmails);
+        Map<UserRef, String> result = new HashMap<>();
+        found.forEach((user, email) -> email.ifPresent(value -> result.put(user, value)));
+        return result;
+    }
+
+    /**
+     * Assignee usernames of the given customers; unassigned or unknown customers are absent
+     */
+    public Map<Long, String> customerOwners(Collection<Long> customerIds) {
+        Map<Long, Optional<String>> found = ownersByCustomer.getAll(customerIds, this::loadOwners);
+        Map<Long, String> result = new HashMap<>();
+        found.forEach((customerId, owner) -> owner.ifPresent(value -> result.put(customerId, value)));
+        return result;
+    }
+
+    private Map<UserRef, Optional<String>> loadEmails(Set<? extends UserRef> users) {
+        List<Long> ids = new ArrayList<>();
+        List<String> usernames = new ArrayList<>();
+        for (UserRef user : users) {
+            if (user.id() != null) {
+                ids.add(user.id());
+            } else {
+                usernames.add(user.username());
+            }
+        }
+
+        Map<UserRef, Optional<String>> loaded = new HashMap<>();
+        users.forEach(user -> loaded.put(user, Optional.empty()));
+        List<String> conditions = new ArrayList<>();
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (!ids.isEmpty()) {
+            conditions.add("id IN (:ids)");
+            params.addValue("ids", ids);
+        }
+        if (!usernames.isEmpty()) {
+            conditions.add("username IN (:usernames)");
+            params.addValue("usernames", usernames);
+        }
+        jdbcTemplate.query("SELECT id, username, email FROM users WHERE " + String.join(" OR ", conditions), params, rs -> {
+            Optional<String> email = Optional.ofNullable(rs.getString("email"));
+            UserRef byId = new UserRef(rs.getLong("id"), null);
+            UserRef byUsername = new UserRef(null, rs.getString("username"));
+            if (loaded.containsKey(byId)) {
+                loaded.put(byId, email);
+            }
+            if (loaded.containsKey(byUsername)) {
+                loaded.put(byUsername, email);
+            }
+        });
+        log.debug("Loaded {} user emails from the directory", users.size());
+        return loaded;
+    }
+
+    private Map<Long, Optional<String>> loadOwners(Set<? extends Long> customerIds) {
+        Map<Long, Optional<String>> loaded = new HashMap<>();
+        customerIds.forEach(customerId -> loaded.put(customerId, Optional.empty()));
+        jdbcTemplate.query("SELECT id, assigned_to FROM customers WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", List.copyOf(customerIds)),
+                rs -> {
+                    loaded.put(rs.getLong("id"), Optional.ofNullable(rs.getString("assigned_to")));
+                });
+        return loaded;
+    }
+}
@@ -0,0 +1,15 @@
+package com.org.crm.notification.recipient;
+
+/**
+ * Reference to a CRM user as carried by events: either a user id or a username
+ */
+public record UserRef(Long id, String username) {
+
+    public static UserRef ofId(Long id) {
+        return id != null ? new UserRef(id, null) : null;
+    }
+
+    public static UserRef ofUsername(String username) {
+        return username != null && !username.isBlank() ? new UserRef(null, username.trim()) : null;
+    }
+}
@@ -1,9 +1,11 @@
 package com.org.crm.notification.repository;
 
+import com.org.crm.notification.counter.RecipientCounts;
 import com.org.crm.notification.model.Notification;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -24,17 +26,51 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     List<Notification> findByRelatedTypeAndRelatedId(String relatedType, Long relatedId);
 
-    Page<Notification> findByRecipient(String recipient, Pageable pageable);
+    /**
+     * Paged listings return a Slice: a Page would also run a COUNT over every partition
+     * the filter touches, which grows with the retained history
+     */
+    Slice<Notification> findByRecipient(String recipient, Pageable pageable);
 
-    Page<Notification> findByStatus(Notification.NotificationStatus status, Pageable pageable);
+    Slice<Notification> findByStatus(Notification.NotificationStatus status, Pageable pageable);
 
-    Page<Notification> findByType(Notification.NotificationType type, Pageable pageable);
+    Slice<Notification> findByType(Notification.NotificationType type, Pageable pageable);
 
     @Query("SELECT n FROM Notification n WHERE n.createdAt BETWEEN :startDate AND :endDate")
     List<Notification> findByCreatedAtBetween(@Param("startDate") java.time.LocalDateTime startDate, @Param("endDate") java.time.LocalDateTime endDate);
 
     long countByRecipient(String recipient);
 
+    /**
+     * Total and unread counts of one recipient in a single scan of its index range
+     */
+    @Query("SELECT new com.org.crm.notification.counter.RecipientCounts(COUNT(n), " +
+           "COALESCE(SUM(CASE WHEN n.status = :unread THEN 1L ELSE 0L END), 0L)) " +
+           "FROM Notification n WHERE n.recipient = :recipient")
+    RecipientCounts countsByRecipient(@Param("recipient") String recipient,
+                                      @Param("unread") Notification.NotificationStatus unread);
+
+    /**
+     * Change the status only if it is still the expected one; returns the number of rows changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.status = :status, n.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE n.id = :id AND n.status = :expected")
+    int updateStatus(@Param("id") Long id,
+                     @Param("expected") Notification.NotificationStatus expected,
+                     @Param("status") Notification.NotificationStatus status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.status = :status, n.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE n.recipient = :recipient AND n.status = :expected")
+    int updateStatusByRecipient(@Param("recipient") String recipient,
+                                @Param("expected") Notification.NotificationStatus expected,
+                                @Param("status") Notification.NotificationStatus status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.id = :id")
+    int deleteNotificationById(@Param("id") Long id);
+
     long countByStatus(Notification.NotificationStatus status);
 
     long countByType(Notification.NotificationType type);
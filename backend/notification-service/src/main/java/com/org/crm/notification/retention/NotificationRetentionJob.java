@@ -0,0 +1,254 @@
+package com.org.crm.notification.retention;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.org.crm.notification.counter.RecipientCounterStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Partition maintenance and retention for the notifications table.
+ *
+ * The table is range-partitioned by month of {@code created_at}. The job keeps
+ * {@code months-ahead} future partitions in place and expires whole months once
+ * they are older than {@code retention-days}: READ and ARCHIVED rows are copied
+ * to {@code notification_archive} as gzip'd JSON lines (unless archiving is
+ * disabled) and the partition is dropped, or, if it still holds UNREAD rows,
+ * only the archived rows are deleted. Each partition is handled in one
+ * transaction under an advisory lock so several instances can run the job.
+ */
+@Component
+@Slf4j
+public class NotificationRetentionJob {
+
+    private static final String PARTITION_PREFIX = "notifications_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String EXPIRED_STATUSES = "('READ', 'ARCHIVED')";
+
+    private static final String LIST_PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'notifications'::regclass AND c.relname LIKE 'notifications\\_p%' ORDER BY c.relname";
+
+    private static final String INSERT_ARCHIVE_SQL =
+            "INSERT INTO notification_archive (period, first_id, last_id, row_count, payload, archived_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate archiveReader;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final RecipientCounterStore recipientCounterStore;
+    private final Counter archivedRows;
+    private final Counter droppedPartitions;
+    private final int monthsAhead;
+    private final int retentionDays;
+    private final boolean archive;
+    private final int archiveChunkSize;
+
+    public NotificationRetentionJob(JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    ObjectMapper objectMapper,
+                                    RecipientCounterStore recipientCounterStore,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${crm.notification.retention.months-ahead:3}") int monthsAhead,
+                                    @Value("${crm.notification.retention.retention-days:90}") int retentionDays,
+                                    @Value("${crm.notification.retention.archive:true}") boolean archive,
+                                    @Value("${crm.notification.retention.archive-chunk-size:10000}") int archiveChunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.recipientCounterStore = recipientCounterStore;
+        this.monthsAhead = monthsAhead;
+        this.retentionDays = retentionDays;
+        this.archive = archive;
+        this.archiveChunkSize = archiveChunkSize;
+        // Stream the archive scan through a server-side cursor instead of buffering the whole partition
+        this.archiveReader = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.archiveReader.setFetchSize(archiveChunkSize);
+        this.archivedRows = Counter.builder("crm.notification.retention.archived")
+                .description("Notifications moved to the archive")
+                .register(meterRegistry);
+        this.droppedPartitions = Counter.builder("crm.notification.retention.dropped-partitions")
+                .description("Expired notification partitions dropped")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        createPartitions();
+    }
+
+    @Scheduled(cron = "${crm.notification.retention.cron:0 15 3 * * *}")
+    public void run() {
+        createPartitions();
+        expirePartitions();
+    }
+
+    /**
+     * Create the partitions for the current month and the configured months ahead
+     */
+    public void createPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                jdbcTemplate.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %s PARTITION OF notifications FOR VALUES FROM ('%s') TO ('%s')",
+                        partitionName(month), month.atDay(1), month.plusMonths(1).atDay(1)));
+            } catch (DataAccessException e) {
+                log.error("❌ Failed to create notification partition for {}: {}", month, e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    /**
+     * Archive and drop every monthly partition that lies entirely before the retention cutoff
+     */
+    public void expirePartitions() {
+        LocalDateTime cutoff = LocalDate.now().minusDays(retentionDays).atStartOfDay();
+        List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class);
+        int expired = 0;
+        for (String partition : partitions) {
+            YearMonth month = YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+            if (month.plusMonths(1).atDay(1).atStartOfDay().isAfter(cutoff)) {
+                continue;
+            }
+            try {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> expire(partition, month)))) {
+                    expired++;
+                }
+            } catch (RuntimeException e) {
+                log.error("❌ Failed to expire notification partition {}", partition, e);
+            }
+        }
+        if (expired > 0) {
+            // Dropped and deleted rows are not tracked row by row; reload counters on next read
+            recipientCounterStore.invalidateAll();
+            log.info("Expired {} notification partitions older than {}", expired, cutoff.toLocalDate());
+        }
+    }
+
+    private boolean expire(String partition, YearMonth month) {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(hashtext(?))", Boolean.class, partition);
+        if (!Boolean.TRUE.equals(locked)
+                || jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition) != Boolean.TRUE) {
+            return false;
+        }
+
+        long archived = archive ? archive(partition, month) : 0;
+        Long unread = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + partition + " WHERE status = 'UNREAD'", Long.class);
+        if (unread == null || unread == 0) {
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            droppedPartitions.increment();
+            log.info("Dropped notification partition {} ({} rows archived)", partition, archived);
+        } else {
+            int deleted = jdbcTemplate.update("DELETE FROM " + partition + " WHERE status IN " + EXPIRED_STATUSES);
+            log.info("Deleted {} read notifications from {}, kept {} unread ({} rows archived)",
+                    deleted, partition, unread, archived);
+        }
+        return true;
+    }
+
+    private long archive(String partition, YearMonth month) {
+        ArchiveChunk chunk = new ArchiveChunk(month.atDay(1));
+        archiveReader.query("SELECT id, type, message, recipient, status, related_type, related_id, created_at, updated_at " +
+                        "FROM " + partition + " WHERE status IN " + EXPIRED_STATUSES + " ORDER BY id",
+                rs -> {
+                    chunk.add(rs);
+                    if (chunk.rows == archiveChunkSize) {
+                        chunk.flush();
+                    }
+                });
+        chunk.flush();
+        archivedRows.increment(chunk.total);
+        return chunk.total;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    /**
+     * Accumulates rows into one gzip'd JSON-lines archive record
+     */
+    private final class ArchiveChunk {
+        private final LocalDate period;
+        private ByteArrayOutputStream buffer;
+        private GZIPOutputStream gzip;
+        private long firstId;
+        private long lastId;
+        private int rows;
+        private long total;
+
+        private ArchiveChunk(LocalDate period) {
+            this.period = period;
+        }
+
+        void add(ResultSet rs) throws SQLException {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", rs.getLong("id"));
+            row.put("type", rs.getString("type"));
+            row.put("message", rs.getString("message"));
+            row.put("recipient", rs.getString("recipient"));
+            row.put("status", rs.getString("status"));
+            row.put("relatedType", rs.getString("related_type"));
+            row.put("relatedId", rs.getObject("related_id"));
+            row.put("createdAt", rs.getTimestamp("created_at").toLocalDateTime().toString());
+            row.put("updatedAt", rs.getTimestamp("updated_at").toLocalDateTime().toString());
+            try {
+                if (gzip == null) {
+                    buffer = new ByteArrayOutputStream();
+                    gzip = new GZIPOutputStream(buffer);
+                    firstId = rs.getLong("id");
+                }
+                gzip.write(objectMapper.writeValueAsBytes(row));
+                gzip.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            lastId = rs.getLong("id");
+            rows++;
+        }
+
+        void flush() {
+            if (rows == 0) {
+                return;
+            }
+            try {
+                gzip.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            jdbcTemplate.update(INSERT_ARCHIVE_SQL, period, firstId, lastId, rows, buffer.toByteArray(),
+                    Timestamp.valueOf(LocalDateTime.now()));
+            total += rows;
+            rows = 0;
+            gzip = null;
+            buffer = null;
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package com.org.crm.notification.service;
 
 import com.org.crm.notification.model.Notification;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,17 +15,29 @@ public interface NotificationService {
 
     NotificationResponse createNotification(CreateNotificationRequest request);
 
+    /**
+     * Persist several notifications through the write-behind buffer; returns once they are committed
+     */
+    void createNotifications(List<CreateNotificationRequest> requests);
+
     Optional<NotificationResponse> getNotificationById(Long id);
 
     NotificationResponse markAsRead(Long id);
 
+    NotificationResponse archive(Long id);
+
+    /**
+     * Mark every unread notification of the recipient as read; returns the number updated
+     */
+    int markAllAsRead(String recipient);
+
     void deleteNotification(Long id);
 
-    Page<NotificationResponse> getNotificationsByRecipient(String recipient, Pageable pageable);
+    Slice<NotificationResponse> getNotificationsByRecipient(String recipient, Pageable pageable);
 
-    Page<NotificationResponse> getNotificationsByStatus(Notification.NotificationStatus status, Pageable pageable);
+    Slice<NotificationResponse> getNotificationsByStatus(Notification.NotificationStatus status, Pageable pageable);
 
-    Page<NotificationResponse> getNotificationsByType(Notification.NotificationType type, Pageable pageable);
+    Slice<NotificationResponse> getNotificationsByType(Notification.NotificationType type, Pageable pageable);
 
     List<NotificationResponse> getNotificationsByRelatedEntity(String relatedType, Long relatedId);
 
@@ -35,6 +47,8 @@ public interface NotificationService {
 
     long getNotificationCountByRecipient(String recipient);
 
+    long getUnreadCountByRecipient(String recipient);
+
     long getNotificationCountByStatus(Notification.NotificationStatus status);
 
     long getNotificationCountByType(Notification.NotificationType type);
@@ -1,18 +1,28 @@
 package com.org.crm.notification.service.impl;
 
+import com.org.crm.notification.buffer.NotificationWriteBuffer;
+import com.org.crm.notification.counter.RecipientCounterStore;
 import com.org.crm.notification.model.Notification;
+import com.org.crm.notification.push.NotificationPushService;
 import com.org.crm.notification.repository.NotificationRepository;
 import com.org.crm.notification.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Implementation of NotificationService
@@ -24,6 +34,12 @@ import java.util.Optional;
 public class NotificationServiceImpl implements NotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final NotificationWriteBuffer notificationWriteBuffer;
+    private final RecipientCounterStore recipientCounterStore;
+    private final NotificationPushService notificationPushService;
+
+    @Value("${crm.notification.write-buffer.ack-timeout-ms:30000}")
+    private long writeBufferTimeoutMs;
 
     @Override
     public NotificationResponse createNotification(CreateNotificationRequest request) {
@@ -37,9 +53,42 @@ public class NotificationServiceImpl implements NotificationService {
                 .relatedId(request.relatedId())
                 .build();
         Notification saved = notificationRepository.save(notification);
+        recipientCounterStore.recordCreated(List.of(saved));
+        notificationPushService.publish(List.of(saved));
         return NotificationResponse.fromNotification(saved);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void createNotifications(List<CreateNotificationRequest> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        log.debug("Creating {} notifications", requests.size());
+        List<Notification> notifications = requests.stream()
+                .map(request -> Notification.builder()
+                        .type(request.type())
+                        .message(request.message())
+                        .recipient(request.recipient())
+                        .status(Notification.NotificationStatus.UNREAD)
+                        .relatedType(request.relatedType())
+                        .relatedId(request.relatedId())
+                        .build())
+                .toList();
+        List<Notification> inserted;
+        try {
+            inserted = notificationWriteBuffer.submit(notifications).get(writeBufferTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for notification flush", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to persist " + notifications.size() + " notifications", e);
+        }
+        // The write buffer has already committed the rows
+        recipientCounterStore.recordCommitted(inserted);
+        notificationPushService.publish(inserted);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<NotificationResponse> getNotificationById(Long id) {
@@ -48,34 +97,75 @@ public class NotificationServiceImpl implements NotificationService {
 
     @Override
     public NotificationResponse markAsRead(Long id) {
-        Notification notification = notificationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Notification not found with ID: " + id));
-        notification.setStatus(Notification.NotificationStatus.READ);
-        Notification updated = notificationRepository.save(notification);
-        return NotificationResponse.fromNotification(updated);
+        return changeStatus(id, Notification.NotificationStatus.READ);
+    }
+
+    @Override
+    public NotificationResponse archive(Long id) {
+        return changeStatus(id, Notification.NotificationStatus.ARCHIVED);
+    }
+
+    @Override
+    public int markAllAsRead(String recipient) {
+        int updated = notificationRepository.updateStatusByRecipient(
+                recipient, Notification.NotificationStatus.UNREAD, Notification.NotificationStatus.READ);
+        log.info("Marked {} notifications as read for recipient: {}", updated, recipient);
+        recipientCounterStore.recordStatusChanged(
+                recipient, Notification.NotificationStatus.UNREAD, Notification.NotificationStatus.READ, updated);
+        if (updated > 0) {
+            notificationPushService.unreadChanged(recipient);
+        }
+        return updated;
     }
 
     @Override
     public void deleteNotification(Long id) {
-        notificationRepository.deleteById(id);
+        notificationRepository.findById(id).ifPresent(notification -> {
+            if (notificationRepository.deleteNotificationById(id) == 0) {
+                return;
+            }
+            recipientCounterStore.recordDeleted(notification.getRecipient(), notification.getStatus());
+            if (notification.getStatus() == Notification.NotificationStatus.UNREAD) {
+                notificationPushService.unreadChanged(notification.getRecipient());
+            }
+        });
+    }
+
+    /**
+     * Move a notification to the given status with a conditional UPDATE; the
+     * counters change only when this call performed the transition
+     */
+    private NotificationResponse changeStatus(Long id, Notification.NotificationStatus status) {
+        Notification notification = notificationRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Notification not found with ID: " + id));
+        Notification.NotificationStatus previous = notification.getStatus();
+        if (previous != status && notificationRepository.updateStatus(id, previous, status) == 1) {
+            recipientCounterStore.recordStatusChanged(notification.getRecipient(), previous, status, 1);
+            if (previous == Notification.NotificationStatus.UNREAD || status == Notification.NotificationStatus.UNREAD) {
+                notificationPushService.unreadChanged(notification.getRecipient());
+            }
+            notification.setUpdatedAt(LocalDateTime.now());
+        }
+        notification.setStatus(status);
+        return NotificationResponse.fromNotification(notification);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<NotificationResponse> getNotificationsByRecipient(String recipient, Pageable pageable) {
-        return notificationRepository.findByRecipient(recipient, pageable).map(NotificationResponse::fromNotification);
+    public Slice<NotificationResponse> getNotificationsByRecipient(String recipient, Pageable pageable) {
+        return notificationRepository.findByRecipient(recipient, newestFirst(pageable)).map(NotificationResponse::fromNotification);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<NotificationResponse> getNotificationsByStatus(Notification.NotificationStatus status, Pageable pageable) {
-        return notificationRepository.findByStatus(status, pageable).map(NotificationResponse::fromNotification);
+    public Slice<NotificationResponse> getNotificationsByStatus(Notification.NotificationStatus status, Pageable pageable) {
+        return notificationRepository.findByStatus(status, newestFirst(pageable)).map(NotificationResponse::fromNotification);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<NotificationResponse> getNotificationsByType(Notification.NotificationType type, Pageable pageable) {
-        return notificationRepository.findByType(type, pageable).map(NotificationResponse::fromNotification);
+    public Slice<NotificationResponse> getNotificationsByType(Notification.NotificationType type, Pageable pageable) {
+        return notificationRepository.findByType(type, newestFirst(pageable)).map(NotificationResponse::fromNotification);
     }
 
     @Override
@@ -114,7 +204,13 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Transactional(readOnly = true)
     public long getNotificationCountByRecipient(String recipient) {
-        return notificationRepository.countByRecipient(recipient);
+        return recipientCounterStore.get(recipient).total();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getUnreadCountByRecipient(String recipient) {
+        return recipientCounterStore.get(recipient).unread();
     }
 
     @Override
@@ -128,4 +224,15 @@ public class NotificationServiceImpl implements NotificationService {
     public long getNotificationCountByType(Notification.NotificationType type) {
         return notificationRepository.countByType(type);
     }
+
+    /**
+     * Unsorted pages are read newest first so the created_at-ordered index scans
+     * stop in the most recent partitions instead of visiting all of them
+     */
+    private static Pageable newestFirst(Pageable pageable) {
+        if (pageable.getSort().isSorted() || pageable.isUnpaged()) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "createdAt"));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+-- Range-partition notifications by month of created_at. An existing
+-- unpartitioned table (created by Hibernate ddl-auto) is copied into the new
+-- layout and dropped. Later months are created ahead of time, and expired
+-- months archived or dropped, by NotificationRetentionJob.
+
+CREATE SEQUENCE IF NOT EXISTS notification_id_seq;
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class WHERE relname = 'notifications' AND relkind = 'r') THEN
+        ALTER TABLE notifications RENAME TO notifications_legacy;
+    END IF;
+END $$;
+
+CREATE TABLE notifications (
+    id           BIGINT       NOT NULL DEFAULT nextval('notification_id_seq'),
+    type         VARCHAR(255) NOT NULL,
+    message      VARCHAR(255) NOT NULL,
+    recipient    VARCHAR(255) NOT NULL,
+    status       VARCHAR(255) NOT NULL,
+    related_type VARCHAR(255),
+    related_id   BIGINT,
+    created_at   TIMESTAMP(6) NOT NULL,
+    updated_at   TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_notifications PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE notification_id_seq OWNED BY notifications.id;
+
+-- Monthly partitions from the oldest existing row through two months ahead
+DO $$
+DECLARE
+    first_month DATE := date_trunc('month', now())::date;
+    last_month  DATE := (date_trunc('month', now()) + INTERVAL '2 months')::date;
+    month       DATE;
+BEGIN
+    IF to_regclass('notifications_legacy') IS NOT NULL THEN
+        SELECT LEAST(first_month, COALESCE(date_trunc('month', MIN(created_at))::date, first_month))
+          INTO first_month
+          FROM notifications_legacy;
+    END IF;
+    month := first_month;
+    WHILE month <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+                       'notifications_p' || to_char(month, 'YYYYMM'), month, (month + INTERVAL '1 month')::date);
+        month := (month + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+-- Safety net if partition maintenance falls behind; expected to stay empty
+CREATE TABLE notifications_default PARTITION OF notifications DEFAULT;
+
+DO $$
+BEGIN
+    IF to_regclass('notifications_legacy') IS NOT NULL THEN
+        INSERT INTO notifications (id, type, message, recipient, status, related_type, related_id, created_at, updated_at)
+        SELECT id, type, message, recipient, status, related_type, related_id,
+               COALESCE(created_at, updated_at, now()), COALESCE(updated_at, created_at, now())
+          FROM notifications_legacy;
+        PERFORM setval('notification_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM notifications_legacy), false);
+        DROP TABLE notifications_legacy;
+    END IF;
+END $$;
+
+-- Inbox: a recipient's newest notifications
+CREATE INDEX idx_notifications_recipient_created_at ON notifications (recipient, created_at DESC);
+
+-- Listing and counting by status / type
+CREATE INDEX idx_notifications_status_created_at ON notifications (status, created_at DESC);
+CREATE INDEX idx_notifications_type ON notifications (type);
+
+-- Lookups by related entity
+CREATE INDEX idx_notifications_related ON notifications (related_type, related_id);
+
+-- Archived READ/ARCHIVED rows of expired partitions, stored as gzip'd JSON
+-- lines. The payload is already compressed, so skip TOAST compression.
+CREATE TABLE notification_archive (
+    id          BIGSERIAL PRIMARY KEY,
+    period      DATE         NOT NULL,
+    first_id    BIGINT       NOT NULL,
+    last_id     BIGINT       NOT NULL,
+    row_count   INTEGER      NOT NULL,
+    payload     BYTEA        NOT NULL,
+    archived_at TIMESTAMP    NOT NULL
+);
+
+ALTER TABLE notification_archive ALTER COLUMN payload SET STORAGE EXTERNAL;
+
+CREATE INDEX idx_notification_archive_period ON notification_archive (period);
@@ -0,0 +1,14 @@
+-- Notifications the database rejected on insert (e.g. a message longer than
+-- its column), parked by NotificationWriteBuffer so the rest of their consumer
+-- batch can still be acknowledged. Columns are unconstrained on purpose.
+
+CREATE TABLE notification_dead_letters (
+    id           BIGSERIAL    PRIMARY KEY,
+    type         VARCHAR(255),
+    message      TEXT,
+    recipient    TEXT,
+    related_type TEXT,
+    related_id   BIGINT,
+    error        TEXT,
+    parked_at    TIMESTAMP(6) NOT NULL DEFAULT now()
+);
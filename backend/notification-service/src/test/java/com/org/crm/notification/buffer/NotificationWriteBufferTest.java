@@ -0,0 +1,139 @@
+package com.org.crm.notification.buffer;
+
+import com.org.crm.notification.model.Notification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationWriteBufferTest {
+
+    private static final String TOO_LONG = "x".repeat(300);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final TransactionStatus status = mock(TransactionStatus.class);
+    private final AtomicLong sequence = new AtomicLong();
+    private NotificationWriteBuffer buffer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(status);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(status.createSavepoint()).thenReturn(new Object());
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any())).thenAnswer(invocation -> {
+            int count = invocation.getArgument(2);
+            return LongStream.range(0, count).map(i -> sequence.incrementAndGet()).boxed().toList();
+        });
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    Collection<Notification> rows = invocation.getArgument(1);
+                    if (rows.stream().anyMatch(row -> row.getMessage().length() > 255)) {
+                        throw new DataIntegrityViolationException("value too long for type character varying(255)");
+                    }
+                    return new int[][] {};
+                });
+
+        buffer = new NotificationWriteBuffer(jdbcTemplate, transactionTemplate, new SimpleMeterRegistry(), 500, 20);
+        buffer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.stop();
+    }
+
+    @Test
+    void insertsSubmissionInOneFlush() throws Exception {
+        List<Notification> rows = List.of(notification("a"), notification("b"));
+
+        List<Notification> inserted = buffer.submit(rows).get(5, TimeUnit.SECONDS);
+
+        assertThat(inserted).containsExactlyElementsOf(rows);
+        assertThat(rows).allSatisfy(row -> assertThat(row.getId()).isNotNull());
+        verify(jdbcTemplate, never()).update(contains("notification_dead_letters"), any(Object[].class));
+    }
+
+    @Test
+    void parksRejectedRowAndInsertsTheRest() throws Exception {
+        Notification good = notification("ok");
+        Notification bad = notification(TOO_LONG);
+        Notification alsoGood = notification("also ok");
+
+        List<Notification> inserted = buffer.submit(List.of(good, bad, alsoGood)).get(5, TimeUnit.SECONDS);
+
+        assertThat(inserted).containsExactly(good, alsoGood);
+        assertThat(bad.getId()).isNull();
+        verify(status, times(1)).rollbackToSavepoint(any());
+        verify(jdbcTemplate, times(1)).update(contains("notification_dead_letters"), any(Object[].class));
+    }
+
+    @Test
+    void rejectedRowDoesNotFailOtherSubmissions() throws Exception {
+        Notification good = notification("ok");
+        Notification bad = notification(TOO_LONG);
+
+        var first = buffer.submit(List.of(good));
+        var second = buffer.submit(List.of(bad));
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).containsExactly(good);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failsSubmissionOnTransientError() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new QueryTimeoutException("statement timeout"));
+
+        var result = buffer.submit(List.of(notification("ok")));
+
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(QueryTimeoutException.class);
+        verify(jdbcTemplate, never()).update(contains("notification_dead_letters"), any(Object[].class));
+    }
+
+    private static Notification notification(String message) {
+        return Notification.builder()
+                .type(Notification.NotificationType.TASK)
+                .message(message)
+                .recipient("1")
+                .status(Notification.NotificationStatus.UNREAD)
+                .relatedType("TASK")
+                .relatedId(1L)
+                .build();
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Sales Service Application
@@ -14,9 +15,10 @@ import org.springframework.cache.annotation.EnableCaching;
  * publishes events for sales lifecycle changes to other services
  * in the system.
  */
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = {"com.org.crm.common", "com.org.crm.sales"})
 @EnableDiscoveryClient
 @EnableCaching
+@EnableScheduling
 public class SalesServiceApplication {
 
     public static void main(String[] args) {
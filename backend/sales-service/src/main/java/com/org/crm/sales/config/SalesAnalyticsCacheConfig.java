@@ -0,0 +1,42 @@
+package com.org.crm.sales.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Messaging setup for cross-instance sales analytics cache invalidation.
+ * Every instance gets its own auto-delete queue receiving all lead and
+ * opportunity events.
+ */
+@Configuration
+public class SalesAnalyticsCacheConfig {
+
+    public static final String LEAD_ANALYTICS_INVALIDATION_ROUTING_KEY = "lead.events.#";
+    public static final String OPPORTUNITY_ANALYTICS_INVALIDATION_ROUTING_KEY = "opportunity.events.#";
+
+    @Bean
+    public Queue salesAnalyticsInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding leadAnalyticsInvalidationBinding(Queue salesAnalyticsInvalidationQueue, TopicExchange crmEventsExchange) {
+        return BindingBuilder
+                .bind(salesAnalyticsInvalidationQueue)
+                .to(crmEventsExchange)
+                .with(LEAD_ANALYTICS_INVALIDATION_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding opportunityAnalyticsInvalidationBinding(Queue salesAnalyticsInvalidationQueue, TopicExchange crmEventsExchange) {
+        return BindingBuilder
+                .bind(salesAnalyticsInvalidationQueue)
+                .to(crmEventsExchange)
+                .with(OPPORTUNITY_ANALYTICS_INVALIDATION_ROUTING_KEY);
+    }
+}
@@ -0,0 +1,46 @@
+package com.org.crm.sales.consumer;
+
+import com.org.crm.common.events.BaseEvent;
+import com.org.crm.common.events.LeadEvents;
+import com.org.crm.common.events.OpportunityEvents;
+import com.org.crm.sales.statistics.LeadConversionAnalytics;
+import com.org.crm.sales.statistics.PipelineHistoryStore;
+import com.org.crm.sales.statistics.WinRateLeaderboard;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops cached sales analytics and marks the pipeline history as changed when
+ * any instance publishes a change that affects them
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SalesAnalyticsInvalidationConsumer {
+
+    private final LeadConversionAnalytics leadConversionAnalytics;
+    private final PipelineHistoryStore pipelineHistoryStore;
+    private final WinRateLeaderboard winRateLeaderboard;
+
+    @RabbitListener(queues = "#{salesAnalyticsInvalidationQueue.name}")
+    public void handleSalesEvent(BaseEvent event) {
+        if (event instanceof LeadEvents.LeadConvertedEvent
+                || event instanceof LeadEvents.LeadUpdatedEvent
+                || event instanceof LeadEvents.LeadCreatedEvent
+                || event instanceof LeadEvents.LeadDeletedEvent) {
+            leadConversionAnalytics.invalidate();
+        } else if (event instanceof OpportunityEvents.OpportunityCreatedEvent
+                || event instanceof OpportunityEvents.OpportunityUpdatedEvent
+                || event instanceof OpportunityEvents.OpportunityDeletedEvent
+                || event instanceof OpportunityEvents.OpportunityWonEvent
+                || event instanceof OpportunityEvents.OpportunityLostEvent) {
+            winRateLeaderboard.invalidate();
+            pipelineHistoryStore.markChanged();
+        } else {
+            return;
+        }
+        log.debug("Invalidated sales analytics for event: {} - ID: {}", event.getEventType(), event.getEventId());
+    }
+}
@@ -12,11 +12,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -325,4 +327,25 @@ public class LeadController {
         double rate = leadService.getConversionRateBySource(source);
         return ResponseEntity.ok(rate);
     }
+
+    @GetMapping("/analytics/conversion")
+    @Operation(summary = "Get conversion matrix", description = "Retrieves lead counts by source, status and assignee with conversion rates per source and assignee")
+    public ResponseEntity<LeadService.ConversionMatrix> getConversionMatrix() {
+        log.debug("Fetching lead conversion matrix");
+        return ResponseEntity.ok(leadService.getConversionMatrix());
+    }
+
+    @GetMapping("/analytics/conversion/cohorts")
+    @Operation(summary = "Get weekly conversion cohorts", description = "Retrieves conversion rates and conversion lag of leads grouped by week of creation")
+    public ResponseEntity<List<LeadService.ConversionCohort>> getConversionCohorts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now().plusDays(1);
+        LocalDate start = from != null ? from : end.minusWeeks(12);
+        if (!start.isBefore(end)) {
+            return ResponseEntity.badRequest().build();
+        }
+        log.debug("Fetching lead conversion cohorts from {} to {}", start, end);
+        return ResponseEntity.ok(leadService.getConversionCohorts(start, end));
+    }
 }
\ No newline at end of file
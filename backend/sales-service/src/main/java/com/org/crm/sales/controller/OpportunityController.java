@@ -12,11 +12,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -329,6 +331,30 @@ public class OpportunityController {
         return ResponseEntity.ok(statistics);
     }
 
+    @GetMapping("/forecast")
+    @Operation(summary = "Get pipeline forecast", description = "Retrieves the weighted forecast of open opportunities by stage, type and assignee")
+    public ResponseEntity<OpportunityService.PipelineForecast> getPipelineForecast() {
+        log.debug("Fetching pipeline forecast");
+        OpportunityService.PipelineForecast forecast = opportunityService.getPipelineForecast();
+        return ResponseEntity.ok(forecast);
+    }
+
+    @GetMapping("/forecast/history")
+    @Operation(summary = "Get pipeline history", description = "Retrieves the open pipeline and per-stage totals over a date range, one point per day, week, month or quarter")
+    public ResponseEntity<List<OpportunityService.PipelineHistoryPoint>> getPipelineHistory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") OpportunityService.PipelineInterval interval,
+            @RequestParam(required = false) String assignedTo) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(90);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().build();
+        }
+        log.debug("Fetching {} pipeline history from {} to {}", interval, start, end);
+        return ResponseEntity.ok(opportunityService.getPipelineHistory(start, end, interval, assignedTo));
+    }
+
     @GetMapping("/top-amount")
     @Operation(summary = "Get top opportunities by amount", description = "Retrieves opportunities ordered by amount")
     public ResponseEntity<Page<OpportunityService.OpportunityResponse>> getTopOpportunitiesByAmount(
@@ -375,4 +401,17 @@ public class OpportunityController {
         double rate = opportunityService.getWinRateByAssignedTo(assignedTo);
         return ResponseEntity.ok(rate);
     }
+
+    @GetMapping("/leaderboard")
+    @Operation(summary = "Get win-rate leaderboard", description = "Retrieves the top reps by win rate, won amount, average deal size, deals won or cycle time")
+    public ResponseEntity<OpportunityService.Leaderboard> getWinRateLeaderboard(
+            @RequestParam(defaultValue = "WIN_RATE") OpportunityService.LeaderboardMetric metric,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "1") long minOpportunities) {
+        if (limit < 1 || limit > 1000 || minOpportunities < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        log.debug("Fetching top {} reps by {}", limit, metric);
+        return ResponseEntity.ok(opportunityService.getWinRateLeaderboard(metric, limit, minOpportunities));
+    }
 }
\ No newline at end of file
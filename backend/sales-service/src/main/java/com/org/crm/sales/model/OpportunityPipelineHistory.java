@@ -0,0 +1,55 @@
+package com.org.crm.sales.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One stage x assignee cell of the pipeline as captured on a given day.
+ *
+ * Each captured day holds the complete pipeline; days without opportunity
+ * changes are not stored and read as the latest earlier day. Opportunities
+ * without an assignee are stored under an empty string.
+ */
+@Entity
+@Table(name = "opportunity_pipeline_history",
+       uniqueConstraints = @UniqueConstraint(name = "uk_opportunity_pipeline_history_cell",
+                                             columnNames = {"snapshot_date", "stage", "assigned_to"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OpportunityPipelineHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stage", nullable = false)
+    private Opportunity.OpportunityStage stage;
+
+    @Column(name = "assigned_to", nullable = false)
+    private String assignedTo;
+
+    @Column(name = "opportunity_count", nullable = false)
+    private long opportunityCount;
+
+    @Column(name = "total_amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(name = "weighted_amount", precision = 19, scale = 4, nullable = false)
+    private BigDecimal weightedAmount;
+
+    @Column(name = "captured_at", nullable = false)
+    private LocalDateTime capturedAt;
+}
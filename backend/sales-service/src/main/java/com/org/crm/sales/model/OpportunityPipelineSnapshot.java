@@ -0,0 +1,54 @@
+package com.org.crm.sales.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One stage x type x assignee cell of the materialized opportunity pipeline.
+ *
+ * Opportunities without a type or assignee are stored under an empty string
+ * so the cell key can carry a unique constraint.
+ */
+@Entity
+@Table(name = "opportunity_pipeline_snapshot",
+       uniqueConstraints = @UniqueConstraint(name = "uk_opportunity_pipeline_snapshot_cell",
+                                             columnNames = {"stage", "type", "assigned_to"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OpportunityPipelineSnapshot {
+
+    /**
+     * Stored value for a missing type or assignee
+     */
+    public static final String NONE = "";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stage", nullable = false)
+    private Opportunity.OpportunityStage stage;
+
+    @Column(name = "type", nullable = false)
+    private String type;
+
+    @Column(name = "assigned_to", nullable = false)
+    private String assignedTo;
+
+    @Column(name = "opportunity_count", nullable = false)
+    private long opportunityCount;
+
+    @Column(name = "total_amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(name = "weighted_amount", precision = 19, scale = 4, nullable = false)
+    private BigDecimal weightedAmount;
+}
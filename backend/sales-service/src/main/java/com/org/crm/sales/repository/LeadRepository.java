@@ -122,6 +122,38 @@ public interface LeadRepository extends JpaRepository<Lead, Long> {
      */
     long countByPriority(Lead.LeadPriority priority);
 
+    /**
+     * Count leads and sum their expected values grouped by status, source and priority in a single scan.
+     * Each row is {@code [LeadStatus, LeadSource (nullable), LeadPriority (nullable), Long count,
+     * BigDecimal sum(expectedValue) (nullable), Long count(expectedValue)]}.
+     */
+    @Query("SELECT l.status, l.source, l.priority, COUNT(l), SUM(l.expectedValue), COUNT(l.expectedValue) " +
+           "FROM Lead l GROUP BY l.status, l.source, l.priority")
+    List<Object[]> aggregateGroupByStatusSourceAndPriority();
+
+    /**
+     * Count leads grouped by source, status and assignee in a single scan.
+     * Each row is {@code [LeadSource (nullable), LeadStatus, String assignedTo (nullable), Long]}.
+     */
+    @Query("SELECT l.source, l.status, l.assignedTo, COUNT(l) FROM Lead l GROUP BY l.source, l.status, l.assignedTo")
+    List<Object[]> countGroupBySourceStatusAndAssignee();
+
+    /**
+     * Weekly created-at cohorts in a single scan. Each row is {@code [week start, leads, converted,
+     * average days to convert (nullable), converted within 1, 2, 4 and 12 weeks]}.
+     */
+    @Query(value = "SELECT CAST(date_trunc('week', created_at) AS date) AS cohort, " +
+                   "COUNT(*), " +
+                   "COUNT(*) FILTER (WHERE status IN ('CONVERTED', 'CLOSED_WON')), " +
+                   "AVG(EXTRACT(EPOCH FROM (converted_at - created_at)) / 86400) FILTER (WHERE converted_at IS NOT NULL), " +
+                   "COUNT(*) FILTER (WHERE converted_at < created_at + INTERVAL '7 days'), " +
+                   "COUNT(*) FILTER (WHERE converted_at < created_at + INTERVAL '14 days'), " +
+                   "COUNT(*) FILTER (WHERE converted_at < created_at + INTERVAL '28 days'), " +
+                   "COUNT(*) FILTER (WHERE converted_at < created_at + INTERVAL '84 days') " +
+                   "FROM leads WHERE created_at >= :from AND created_at < :to " +
+                   "GROUP BY cohort ORDER BY cohort", nativeQuery = true)
+    List<Object[]> conversionCohortsByWeek(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
     /**
      * Find leads with highest expected value
      */
@@ -0,0 +1,21 @@
+package com.org.crm.sales.repository;
+
+import com.org.crm.sales.model.OpportunityPipelineSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for the materialized opportunity pipeline
+ */
+@Repository
+public interface OpportunityPipelineSnapshotRepository extends JpaRepository<OpportunityPipelineSnapshot, Long> {
+
+    /**
+     * Non-empty pipeline cells
+     */
+    @Query("SELECT s FROM OpportunityPipelineSnapshot s WHERE s.opportunityCount <> 0")
+    List<OpportunityPipelineSnapshot> findNonEmpty();
+}
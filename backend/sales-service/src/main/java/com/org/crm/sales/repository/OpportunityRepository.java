@@ -1,9 +1,11 @@
 package com.org.crm.sales.repository;
 
 import com.org.crm.sales.model.Opportunity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -19,6 +21,14 @@ import java.util.Optional;
 @Repository
 public interface OpportunityRepository extends JpaRepository<Opportunity, Long> {
 
+    /**
+     * Find opportunity by ID and lock its row until the transaction ends, so concurrent
+     * writers see each other's changes before adjusting the pipeline snapshot
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Opportunity o WHERE o.id = :id")
+    Optional<Opportunity> findByIdForUpdate(@Param("id") Long id);
+
     /**
      * Find opportunity by name
      */
@@ -241,6 +251,33 @@ public interface OpportunityRepository extends JpaRepository<Opportunity, Long>
     @Query("SELECT COUNT(o) FROM Opportunity o WHERE o.assignedTo = :assignedTo")
     long getTotalOpportunitiesByAssignedTo(@Param("assignedTo") String assignedTo);
 
+    /**
+     * Per-assignee win statistics in a single scan, ranked and cut to the top {@code limit} in the database.
+     * Each row is {@code [assignedTo, opportunities, won, lost, won amount, average deal size (nullable),
+     * average days from creation to win (nullable), win rate]}. Cycle time ranks ascending, every other
+     * metric descending.
+     */
+    @Query(value = "SELECT assigned_to, opportunities, won, lost, won_amount, average_deal_size, average_cycle_days, win_rate " +
+                   "FROM (SELECT assigned_to, " +
+                   "COUNT(*) AS opportunities, " +
+                   "COUNT(*) FILTER (WHERE stage = 'CLOSED_WON') AS won, " +
+                   "COUNT(*) FILTER (WHERE stage = 'CLOSED_LOST') AS lost, " +
+                   "COALESCE(SUM(amount) FILTER (WHERE stage = 'CLOSED_WON'), 0) AS won_amount, " +
+                   "AVG(amount) FILTER (WHERE stage = 'CLOSED_WON') AS average_deal_size, " +
+                   "AVG(EXTRACT(EPOCH FROM (won_at - created_at)) / 86400) " +
+                   "FILTER (WHERE stage = 'CLOSED_WON' AND won_at IS NOT NULL) AS average_cycle_days, " +
+                   "100.0 * COUNT(*) FILTER (WHERE stage = 'CLOSED_WON') / COUNT(*) AS win_rate " +
+                   "FROM opportunities WHERE assigned_to IS NOT NULL " +
+                   "GROUP BY assigned_to HAVING COUNT(*) >= :minOpportunities) reps " +
+                   "ORDER BY CASE :metric WHEN 'WIN_RATE' THEN win_rate WHEN 'WON_AMOUNT' THEN won_amount " +
+                   "WHEN 'AVERAGE_DEAL_SIZE' THEN average_deal_size WHEN 'DEALS_WON' THEN won END DESC NULLS LAST, " +
+                   "CASE WHEN :metric = 'CYCLE_TIME' THEN average_cycle_days END ASC NULLS LAST, " +
+                   "assigned_to " +
+                   "LIMIT :limit", nativeQuery = true)
+    List<Object[]> winRateLeaderboard(@Param("metric") String metric,
+                                      @Param("minOpportunities") long minOpportunities,
+                                      @Param("limit") int limit);
+
     /**
      * Get opportunities by customer email
      */
@@ -5,6 +5,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -189,6 +190,16 @@ public interface LeadService {
      */
     double getConversionRateBySource(Lead.LeadSource source);
 
+    /**
+     * Get the full source x status x assignee conversion matrix
+     */
+    ConversionMatrix getConversionMatrix();
+
+    /**
+     * Get weekly conversion cohorts of leads created in [from, to)
+     */
+    List<ConversionCohort> getConversionCohorts(LocalDate from, LocalDate to);
+
     /**
      * Lead response DTO
      */
@@ -325,4 +336,52 @@ public interface LeadService {
             BigDecimal totalExpectedValue,
             BigDecimal averageExpectedValue
     ) {}
+
+    /**
+     * Number of leads with one source, status and assignee
+     */
+    record ConversionCell(
+            Lead.LeadSource source,
+            Lead.LeadStatus status,
+            String assignedTo,
+            long leads
+    ) {}
+
+    /**
+     * Conversion rate (percent) of one source or assignee
+     */
+    record ConversionRate(
+            String key,
+            long leads,
+            long converted,
+            double conversionRate
+    ) {}
+
+    /**
+     * Conversion matrix DTO
+     */
+    record ConversionMatrix(
+            long totalLeads,
+            long convertedLeads,
+            double conversionRate,
+            List<ConversionRate> bySource,
+            List<ConversionRate> byAssignee,
+            List<ConversionCell> cells,
+            LocalDateTime generatedAt
+    ) {}
+
+    /**
+     * Weekly created-at conversion cohort DTO
+     */
+    record ConversionCohort(
+            LocalDate weekStart,
+            long leads,
+            long converted,
+            double conversionRate,
+            Double averageDaysToConvert,
+            long convertedWithin1Week,
+            long convertedWithin2Weeks,
+            long convertedWithin4Weeks,
+            long convertedWithin12Weeks
+    ) {}
 } 
\ No newline at end of file
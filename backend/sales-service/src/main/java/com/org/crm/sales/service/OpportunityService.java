@@ -5,6 +5,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -149,6 +150,16 @@ public interface OpportunityService {
      */
     OpportunityStatistics getOpportunityStatistics();
 
+    /**
+     * Get the weighted forecast of the open pipeline
+     */
+    PipelineForecast getPipelineForecast();
+
+    /**
+     * Get the pipeline over a date range, one point per interval
+     */
+    List<PipelineHistoryPoint> getPipelineHistory(LocalDate from, LocalDate to, PipelineInterval interval, String assignedTo);
+
     /**
      * Get top opportunities by amount
      */
@@ -239,6 +250,11 @@ public interface OpportunityService {
      */
     double getWinRateByAssignedTo(String assignedTo);
 
+    /**
+     * Get the top reps by a win metric
+     */
+    Leaderboard getWinRateLeaderboard(LeaderboardMetric metric, int limit, long minOpportunities);
+
     /**
      * Opportunity response DTO
      */
@@ -371,4 +387,89 @@ public interface OpportunityService {
             BigDecimal totalLostAmount,
             double winRate
     ) {}
+
+    /**
+     * Count and amounts of opportunities with one stage, type and assignee
+     */
+    record PipelineCell(
+            Opportunity.OpportunityStage stage,
+            Opportunity.OpportunityType type,
+            String assignedTo,
+            long opportunityCount,
+            BigDecimal totalAmount,
+            BigDecimal weightedAmount
+    ) {}
+
+    /**
+     * Pipeline totals for one stage, type or assignee
+     */
+    record PipelineRollup(
+            String key,
+            long opportunityCount,
+            BigDecimal totalAmount,
+            BigDecimal weightedAmount
+    ) {}
+
+    /**
+     * Weighted pipeline forecast DTO
+     */
+    record PipelineForecast(
+            long openOpportunities,
+            BigDecimal openAmount,
+            BigDecimal weightedForecast,
+            List<PipelineRollup> byStage,
+            List<PipelineRollup> byType,
+            List<PipelineRollup> byAssignee,
+            List<PipelineCell> cells
+    ) {}
+
+    /**
+     * Granularity of pipeline history points
+     */
+    enum PipelineInterval {
+        DAY, WEEK, MONTH, QUARTER
+    }
+
+    /**
+     * Pipeline as of the last captured day of one period
+     */
+    record PipelineHistoryPoint(
+            LocalDate periodStart,
+            LocalDate asOf,
+            long openOpportunities,
+            BigDecimal openAmount,
+            BigDecimal weightedForecast,
+            List<PipelineRollup> byStage
+    ) {}
+
+    /**
+     * Metric a leaderboard is ranked by; cycle time ranks shortest first
+     */
+    enum LeaderboardMetric {
+        WIN_RATE, WON_AMOUNT, AVERAGE_DEAL_SIZE, DEALS_WON, CYCLE_TIME
+    }
+
+    /**
+     * Win statistics of one rep
+     */
+    record LeaderboardEntry(
+            int rank,
+            String assignedTo,
+            long opportunities,
+            long won,
+            long lost,
+            double winRate,
+            BigDecimal wonAmount,
+            BigDecimal averageDealSize,
+            Double averageCycleDays
+    ) {}
+
+    /**
+     * Win-rate leaderboard DTO
+     */
+    record Leaderboard(
+            LeaderboardMetric metric,
+            List<LeaderboardEntry> entries,
+            LocalDateTime generatedAt
+    ) {}
 } 
\ No newline at end of file
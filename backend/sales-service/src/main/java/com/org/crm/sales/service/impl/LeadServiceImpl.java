@@ -7,6 +7,8 @@ import com.org.crm.sales.exception.GlobalExceptionHandler;
 import com.org.crm.sales.model.Lead;
 import com.org.crm.sales.repository.LeadRepository;
 import com.org.crm.sales.service.LeadService;
+import com.org.crm.sales.statistics.LeadConversionAnalytics;
+import com.org.crm.sales.statistics.LeadStatisticsEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -15,6 +17,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -29,6 +32,8 @@ import java.util.Optional;
 public class LeadServiceImpl implements LeadService {
 
     private final LeadRepository leadRepository;
+    private final LeadStatisticsEngine leadStatisticsEngine;
+    private final LeadConversionAnalytics leadConversionAnalytics;
     private final EventPublisher eventPublisher;
 
     @Override
@@ -381,59 +386,7 @@ public class LeadServiceImpl implements LeadService {
     @Transactional(readOnly = true)
     public LeadStatistics getLeadStatistics() {
         log.debug("Fetching lead statistics");
-
-        long totalLeads = leadRepository.count();
-        long newLeads = leadRepository.countByStatus(Lead.LeadStatus.NEW);
-        long contactedLeads = leadRepository.countByStatus(Lead.LeadStatus.CONTACTED);
-        long qualifiedLeads = leadRepository.countByStatus(Lead.LeadStatus.QUALIFIED);
-        long proposalSentLeads = leadRepository.countByStatus(Lead.LeadStatus.PROPOSAL_SENT);
-        long negotiationLeads = leadRepository.countByStatus(Lead.LeadStatus.NEGOTIATION);
-        long closedWonLeads = leadRepository.countByStatus(Lead.LeadStatus.CLOSED_WON);
-        long closedLostLeads = leadRepository.countByStatus(Lead.LeadStatus.CLOSED_LOST);
-        long convertedLeads = leadRepository.countByStatus(Lead.LeadStatus.CONVERTED);
-
-        long leadsByWebsite = leadRepository.countBySource(Lead.LeadSource.WEBSITE);
-        long leadsByReferral = leadRepository.countBySource(Lead.LeadSource.REFERRAL);
-        long leadsBySocialMedia = leadRepository.countBySource(Lead.LeadSource.SOCIAL_MEDIA);
-        long leadsByColdCall = leadRepository.countBySource(Lead.LeadSource.COLD_CALL);
-        long leadsByTradeShow = leadRepository.countBySource(Lead.LeadSource.TRADE_SHOW);
-        long leadsByEmailCampaign = leadRepository.countBySource(Lead.LeadSource.EMAIL_CAMPAIGN);
-        long leadsByAdvertising = leadRepository.countBySource(Lead.LeadSource.ADVERTISING);
-        long leadsByOther = leadRepository.countBySource(Lead.LeadSource.OTHER);
-
-        long lowPriorityLeads = leadRepository.countByPriority(Lead.LeadPriority.LOW);
-        long mediumPriorityLeads = leadRepository.countByPriority(Lead.LeadPriority.MEDIUM);
-        long highPriorityLeads = leadRepository.countByPriority(Lead.LeadPriority.HIGH);
-        long urgentPriorityLeads = leadRepository.countByPriority(Lead.LeadPriority.URGENT);
-
-        BigDecimal totalExpectedValue = leadRepository.getTotalExpectedValueByStatus(null);
-        BigDecimal averageExpectedValue = leadRepository.getAverageExpectedValue();
-
-        return new LeadStatistics(
-                totalLeads,
-                newLeads,
-                contactedLeads,
-                qualifiedLeads,
-                proposalSentLeads,
-                negotiationLeads,
-                closedWonLeads,
-                closedLostLeads,
-                convertedLeads,
-                leadsByWebsite,
-                leadsByReferral,
-                leadsBySocialMedia,
-                leadsByColdCall,
-                leadsByTradeShow,
-                leadsByEmailCampaign,
-                leadsByAdvertising,
-                leadsByOther,
-                lowPriorityLeads,
-                mediumPriorityLeads,
-                highPriorityLeads,
-                urgentPriorityLeads,
-                totalExpectedValue != null ? totalExpectedValue : BigDecimal.ZERO,
-                averageExpectedValue != null ? averageExpectedValue : BigDecimal.ZERO
-        );
+        return leadStatisticsEngine.toStatistics(leadStatisticsEngine.aggregate());
     }
 
     @Override
@@ -483,14 +436,21 @@ public class LeadServiceImpl implements LeadService {
     @Override
     @Transactional(readOnly = true)
     public double getConversionRateBySource(Lead.LeadSource source) {
-        long totalLeads = leadRepository.countBySource(source);
-        long convertedLeads = leadRepository.getConvertedLeadsBySource(source);
-        
-        if (totalLeads == 0) {
-            return 0.0;
-        }
-        
-        return (double) convertedLeads / totalLeads * 100;
+        return leadConversionAnalytics.conversionRate(source);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ConversionMatrix getConversionMatrix() {
+        log.debug("Fetching lead conversion matrix");
+        return leadConversionAnalytics.matrix();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ConversionCohort> getConversionCohorts(LocalDate from, LocalDate to) {
+        log.debug("Fetching lead conversion cohorts from {} to {}", from, to);
+        return leadConversionAnalytics.cohorts(from, to);
     }
 
     // Additional methods for filtering and analytics
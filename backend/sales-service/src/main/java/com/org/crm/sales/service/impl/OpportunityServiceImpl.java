@@ -7,6 +7,9 @@ import com.org.crm.sales.exception.GlobalExceptionHandler;
 import com.org.crm.sales.model.Opportunity;
 import com.org.crm.sales.repository.OpportunityRepository;
 import com.org.crm.sales.service.OpportunityService;
+import com.org.crm.sales.statistics.PipelineHistoryStore;
+import com.org.crm.sales.statistics.PipelineSnapshotEngine;
+import com.org.crm.sales.statistics.WinRateLeaderboard;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -15,6 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -30,6 +34,9 @@ public class OpportunityServiceImpl implements OpportunityService {
 
     private final OpportunityRepository opportunityRepository;
     private final EventPublisher eventPublisher;
+    private final PipelineSnapshotEngine pipelineSnapshotEngine;
+    private final PipelineHistoryStore pipelineHistoryStore;
+    private final WinRateLeaderboard winRateLeaderboard;
 
     @Override
     public OpportunityResponse createOpportunity(CreateOpportunityRequest request) {
@@ -63,6 +70,7 @@ public class OpportunityServiceImpl implements OpportunityService {
 
         // Save opportunity
         Opportunity savedOpportunity = opportunityRepository.save(opportunity);
+        pipelineSnapshotEngine.recordCreated(PipelineSnapshotEngine.Position.of(savedOpportunity));
         log.info("Opportunity created successfully with ID: {}", savedOpportunity.getId());
 
         // Publish opportunity created event
@@ -101,8 +109,9 @@ public class OpportunityServiceImpl implements OpportunityService {
     public OpportunityResponse updateOpportunity(Long id, UpdateOpportunityRequest request) {
         log.info("Updating opportunity with ID: {}", id);
 
-        Opportunity opportunity = opportunityRepository.findById(id)
+        Opportunity opportunity = opportunityRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new GlobalExceptionHandler.OpportunityNotFoundException("Opportunity not found with ID: " + id));
+        PipelineSnapshotEngine.Position before = PipelineSnapshotEngine.Position.of(opportunity);
 
         // Update opportunity fields
         if (request.name() != null) opportunity.setName(request.name());
@@ -124,6 +133,7 @@ public class OpportunityServiceImpl implements OpportunityService {
         if (request.nextActionDate() != null) opportunity.setNextActionDate(request.nextActionDate());
 
         Opportunity updatedOpportunity = opportunityRepository.save(opportunity);
+        pipelineSnapshotEngine.recordChanged(before, PipelineSnapshotEngine.Position.of(updatedOpportunity));
         log.info("Opportunity updated successfully with ID: {}", updatedOpportunity.getId());
 
         // Publish opportunity updated event
@@ -146,7 +156,7 @@ public class OpportunityServiceImpl implements OpportunityService {
     public void deleteOpportunity(Long id) {
         log.info("Deleting opportunity with ID: {}", id);
 
-        Opportunity opportunity = opportunityRepository.findById(id)
+        Opportunity opportunity = opportunityRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new GlobalExceptionHandler.OpportunityNotFoundException("Opportunity not found with ID: " + id));
 
         // Publish opportunity deleted event before deletion
@@ -157,6 +167,7 @@ public class OpportunityServiceImpl implements OpportunityService {
         eventPublisher.publishOpportunityEvent(event);
 
         opportunityRepository.deleteById(id);
+        pipelineSnapshotEngine.recordDeleted(PipelineSnapshotEngine.Position.of(opportunity));
         log.info("Opportunity deleted successfully with ID: {}", id);
     }
 
@@ -236,12 +247,14 @@ public class OpportunityServiceImpl implements OpportunityService {
     public OpportunityResponse updateOpportunityStage(Long id, Opportunity.OpportunityStage stage) {
         log.info("Updating opportunity stage to {} for opportunity ID: {}", stage, id);
 
-        Opportunity opportunity = opportunityRepository.findById(id)
+        Opportunity opportunity = opportunityRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new GlobalExceptionHandler.OpportunityNotFoundException("Opportunity not found with ID: " + id));
+        PipelineSnapshotEngine.Position before = PipelineSnapshotEngine.Position.of(opportunity);
 
         opportunity.setStage(stage);
         opportunity.setLastActivityDate(LocalDateTime.now());
         Opportunity updatedOpportunity = opportunityRepository.save(opportunity);
+        pipelineSnapshotEngine.recordChanged(before, PipelineSnapshotEngine.Position.of(updatedOpportunity));
 
         // Publish opportunity updated event
         BaseEvent event = new OpportunityEvents.OpportunityUpdatedEvent(
@@ -263,12 +276,14 @@ public class OpportunityServiceImpl implements OpportunityService {
     public OpportunityResponse updateOpportunityAssignment(Long id, String assignedTo) {
         log.info("Updating opportunity assignment to {} for opportunity ID: {}", assignedTo, id);
 
-        Opportunity opportunity = opportunityRepository.findById(id)
+        Opportunity opportunity = opportunityRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new GlobalExceptionHandler.OpportunityNotFoundException("Opportunity not found with ID: " + id));
+        PipelineSnapshotEngine.Position before = PipelineSnapshotEngine.Position.of(opportunity);
 
         opportunity.setAssignedTo(assignedTo);
         opportunity.setLastActivityDate(LocalDateTime.now());
         Opportunity updatedOpportunity = opportunityRepository.save(opportunity);
+        pipelineSnapshotEngine.recordChanged(before, PipelineSnapshotEngine.Position.of(updatedOpportunity));
 
         // Publish opportunity updated event
         BaseEvent event = new OpportunityEvents.OpportunityUpdatedEvent(
@@ -290,12 +305,14 @@ public class OpportunityServiceImpl implements OpportunityService {
     public OpportunityResponse updateOpportunityProbability(Long id, Integer probability) {
         log.info("Updating opportunity probability to {} for opportunity ID: {}", probability, id);
 
-        Opportunity opportunity = opportunityRepository.findById(id)
+        Opportunity opportunity = opportunityRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new GlobalExceptionHandler.OpportunityNotFoundException("Opportunity not found with ID: " + id));
+        PipelineSnapshotEngine.Position before = PipelineSnapshotEngine.Position.of(opportunity);
 
         opportunity.setProbability(probability);
         opportunity.setLastActivityDate(LocalDateTime.now());
         Opportunity updatedOpportunity = opportunityRepository.save(opportunity);
+        pipelineSnapshotEngine.recordChanged(before, PipelineSnapshotEngine.Position.of(updatedOpportunity));
 
         // Publish opportunity updated event
         BaseEvent event = new OpportunityEvents.OpportunityUpdatedEvent(
@@ -317,12 +334,14 @@ public class OpportunityServiceImpl implements OpportunityService {
     public OpportunityResponse updateOpportunityAmount(Long id, BigDecimal amount) {
         log.info("Updating opportunity amount to {} for opportunity ID: {}", amount, id);
 
-        Opportunity opportunity = opportunityRepository.findById(id)
+        Opportunity opportunity = opportunityRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new GlobalExceptionHandler.OpportunityNotFoundException("Opportunity not found with ID: " + id));
+        PipelineSnapshotEngine.Position before = PipelineSnapshotEngine.Position.of(opportunity);
 
         opportunity.setAmount(amount);
         opportunity.setLastActivityDate(LocalDateTime.now());
         Opportunity updatedOpportunity = opportunityRepository.save(opportunity);
+        pipelineSnapshotEngine.recordChanged(before, PipelineSnapshotEngine.Position.of(updatedOpportunity));
 
         // Publish opportunity updated event
         BaseEvent event = new OpportunityEvents.OpportunityUpdatedEvent(
@@ -359,8 +378,9 @@ public class OpportunityServiceImpl implements OpportunityService {
     public OpportunityResponse winOpportunity(Long id, String closeReason) {
         log.info("Winning opportunity with ID: {}", id);
 
-        Opportunity opportunity = opportunityRepository.findById(id)
+        Opportunity opportunity = opportunityRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new GlobalExceptionHandler.OpportunityNotFoundException("Opportunity not found with ID: " + id));
+        PipelineSnapshotEngine.Position before = PipelineSnapshotEngine.Position.of(opportunity);
 
         opportunity.setStage(Opportunity.OpportunityStage.CLOSED_WON);
         opportunity.setActualCloseDate(LocalDateTime.now());
@@ -369,6 +389,7 @@ public class OpportunityServiceImpl implements OpportunityService {
         opportunity.setLastActivityDate(LocalDateTime.now());
 
         Opportunity wonOpportunity = opportunityRepository.save(opportunity);
+        pipelineSnapshotEngine.recordChanged(before, PipelineSnapshotEngine.Position.of(wonOpportunity));
 
         // Publish opportunity won event
         BaseEvent event = new OpportunityEvents.OpportunityWonEvent(
@@ -386,8 +407,9 @@ public class OpportunityServiceImpl implements OpportunityService {
     public OpportunityResponse loseOpportunity(Long id, String lostReason) {
         log.info("Losing opportunity with ID: {}", id);
 
-        Opportunity opportunity = opportunityRepository.findById(id)
+        Opportunity opportunity = opportunityRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new GlobalExceptionHandler.OpportunityNotFoundException("Opportunity not found with ID: " + id));
+        PipelineSnapshotEngine.Position before = PipelineSnapshotEngine.Position.of(opportunity);
 
         opportunity.setStage(Opportunity.OpportunityStage.CLOSED_LOST);
         opportunity.setActualCloseDate(LocalDateTime.now());
@@ -396,6 +418,7 @@ public class OpportunityServiceImpl implements OpportunityService {
         opportunity.setLastActivityDate(LocalDateTime.now());
 
         Opportunity lostOpportunity = opportunityRepository.save(opportunity);
+        pipelineSnapshotEngine.recordChanged(before, PipelineSnapshotEngine.Position.of(lostOpportunity));
 
         // Publish opportunity lost event
         BaseEvent event = new OpportunityEvents.OpportunityLostEvent(
@@ -413,49 +436,22 @@ public class OpportunityServiceImpl implements OpportunityService {
     @Transactional(readOnly = true)
     public OpportunityStatistics getOpportunityStatistics() {
         log.debug("Fetching opportunity statistics");
+        return pipelineSnapshotEngine.toStatistics(pipelineSnapshotEngine.cells());
+    }
 
-        long totalOpportunities = opportunityRepository.count();
-        long prospectingOpportunities = opportunityRepository.countByStage(Opportunity.OpportunityStage.PROSPECTING);
-        long qualificationOpportunities = opportunityRepository.countByStage(Opportunity.OpportunityStage.QUALIFICATION);
-        long proposalOpportunities = opportunityRepository.countByStage(Opportunity.OpportunityStage.PROPOSAL);
-        long negotiationOpportunities = opportunityRepository.countByStage(Opportunity.OpportunityStage.NEGOTIATION);
-        long closedWonOpportunities = opportunityRepository.countByStage(Opportunity.OpportunityStage.CLOSED_WON);
-        long closedLostOpportunities = opportunityRepository.countByStage(Opportunity.OpportunityStage.CLOSED_LOST);
-
-        long newBusinessOpportunities = opportunityRepository.countByType(Opportunity.OpportunityType.NEW_BUSINESS);
-        long existingBusinessOpportunities = opportunityRepository.countByType(Opportunity.OpportunityType.EXISTING_BUSINESS);
-        long renewalOpportunities = opportunityRepository.countByType(Opportunity.OpportunityType.RENEWAL);
-        long upsellOpportunities = opportunityRepository.countByType(Opportunity.OpportunityType.UPSELL);
-        long crossSellOpportunities = opportunityRepository.countByType(Opportunity.OpportunityType.CROSS_SELL);
-
-        BigDecimal totalAmount = opportunityRepository.getTotalAmountByStage(null);
-        BigDecimal totalWeightedAmount = opportunityRepository.getTotalWeightedAmountByStage(null);
-        BigDecimal averageAmount = opportunityRepository.getAverageAmount();
-        BigDecimal totalWonAmount = opportunityRepository.getTotalWonAmount();
-        BigDecimal totalLostAmount = opportunityRepository.getTotalLostAmount();
-
-        double winRate = totalOpportunities > 0 ? (double) closedWonOpportunities / totalOpportunities * 100 : 0.0;
-
-        return new OpportunityStatistics(
-                totalOpportunities,
-                prospectingOpportunities,
-                qualificationOpportunities,
-                proposalOpportunities,
-                negotiationOpportunities,
-                closedWonOpportunities,
-                closedLostOpportunities,
-                newBusinessOpportunities,
-                existingBusinessOpportunities,
-                renewalOpportunities,
-                upsellOpportunities,
-                crossSellOpportunities,
-                totalAmount != null ? totalAmount : BigDecimal.ZERO,
-                totalWeightedAmount != null ? totalWeightedAmount : BigDecimal.ZERO,
-                averageAmount != null ? averageAmount : BigDecimal.ZERO,
-                totalWonAmount != null ? totalWonAmount : BigDecimal.ZERO,
-                totalLostAmount != null ? totalLostAmount : BigDecimal.ZERO,
-                winRate
-        );
+    @Override
+    @Transactional(readOnly = true)
+    public PipelineForecast getPipelineForecast() {
+        log.debug("Fetching pipeline forecast");
+        return pipelineSnapshotEngine.toForecast(pipelineSnapshotEngine.cells());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PipelineHistoryPoint> getPipelineHistory(LocalDate from, LocalDate to, PipelineInterval interval,
+                                                         String assignedTo) {
+        log.debug("Fetching {} pipeline history from {} to {}", interval, from, to);
+        return pipelineHistoryStore.series(from, to, interval, assignedTo);
     }
 
     @Override
@@ -523,14 +519,14 @@ public class OpportunityServiceImpl implements OpportunityService {
     @Override
     @Transactional(readOnly = true)
     public double getWinRateByAssignedTo(String assignedTo) {
-        long totalOpportunities = opportunityRepository.getTotalOpportunitiesByAssignedTo(assignedTo);
-        long wonOpportunities = opportunityRepository.getWonOpportunitiesByAssignedTo(assignedTo);
-        
-        if (totalOpportunities == 0) {
-            return 0.0;
-        }
-        
-        return (double) wonOpportunities / totalOpportunities * 100;
+        return winRateLeaderboard.winRate(assignedTo);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Leaderboard getWinRateLeaderboard(LeaderboardMetric metric, int limit, long minOpportunities) {
+        log.debug("Fetching top {} reps by {}", limit, metric);
+        return winRateLeaderboard.top(metric, limit, minOpportunities);
     }
 
     // Additional methods for filtering and analytics
@@ -0,0 +1,182 @@
+package com.org.crm.sales.statistics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.org.crm.sales.model.Lead;
+import com.org.crm.sales.repository.LeadRepository;
+import com.org.crm.sales.service.LeadService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lead conversion analytics: the source x status x assignee matrix and weekly
+ * created-at cohorts, each computed with one grouped query.
+ *
+ * Results are cached for {@code expire-after-write-ms} and dropped as soon as
+ * any instance publishes a lead change, so the TTL only bounds staleness for
+ * writes that publish no event.
+ */
+@Component
+@Slf4j
+public class LeadConversionAnalytics {
+
+    static final Set<Lead.LeadStatus> CONVERTED_STATUSES = EnumSet.of(Lead.LeadStatus.CONVERTED, Lead.LeadStatus.CLOSED_WON);
+    static final String UNSPECIFIED = "UNSPECIFIED";
+    static final String UNASSIGNED = "UNASSIGNED";
+
+    private static final String MATRIX_KEY = "matrix";
+
+    private final LeadRepository leadRepository;
+    private final Cache<String, LeadService.ConversionMatrix> matrices;
+    private final Cache<CohortRange, List<LeadService.ConversionCohort>> cohorts;
+
+    public LeadConversionAnalytics(LeadRepository leadRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${crm.sales.analytics.maximum-size:500}") long maximumSize,
+                                   @Value("${crm.sales.analytics.expire-after-write-ms:60000}") long expireAfterWriteMs) {
+        this.leadRepository = leadRepository;
+        this.matrices = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+        this.cohorts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, matrices, "leads.conversion-matrix");
+        CaffeineCacheMetrics.monitor(meterRegistry, cohorts, "leads.conversion-cohorts");
+    }
+
+    /**
+     * Full conversion matrix, from cache when possible
+     */
+    public LeadService.ConversionMatrix matrix() {
+        return matrices.get(MATRIX_KEY, key -> loadMatrix());
+    }
+
+    /**
+     * Conversion rate (percent) of one source, read from the cached matrix
+     */
+    public double conversionRate(Lead.LeadSource source) {
+        return matrix().bySource().stream()
+                .filter(rate -> rate.key().equals(source.name()))
+                .mapToDouble(LeadService.ConversionRate::conversionRate)
+                .findFirst()
+                .orElse(0.0);
+    }
+
+    /**
+     * Weekly cohorts of leads created in [from, to), from cache when possible
+     */
+    public List<LeadService.ConversionCohort> cohorts(LocalDate from, LocalDate to) {
+        return cohorts.get(new CohortRange(from, to), this::loadCohorts);
+    }
+
+    /**
+     * Drop all cached results
+     */
+    public void invalidate() {
+        matrices.invalidateAll();
+        cohorts.invalidateAll();
+    }
+
+    private LeadService.ConversionMatrix loadMatrix() {
+        log.debug("Aggregating lead conversion matrix");
+        List<Object[]> rows = leadRepository.countGroupBySourceStatusAndAssignee();
+
+        List<LeadService.ConversionCell> cells = new ArrayList<>(rows.size());
+        Map<String, long[]> bySource = new LinkedHashMap<>();
+        for (Lead.LeadSource source : Lead.LeadSource.values()) {
+            bySource.put(source.name(), new long[2]);
+        }
+        Map<String, long[]> byAssignee = new LinkedHashMap<>();
+        long total = 0;
+        long converted = 0;
+
+        for (Object[] row : rows) {
+            Lead.LeadSource source = (Lead.LeadSource) row[0];
+            Lead.LeadStatus status = (Lead.LeadStatus) row[1];
+            String assignedTo = (String) row[2];
+            long leads = ((Number) row[3]).longValue();
+            if (status == null) {
+                continue;
+            }
+            cells.add(new LeadService.ConversionCell(source, status, assignedTo, leads));
+
+            long convertedLeads = CONVERTED_STATUSES.contains(status) ? leads : 0;
+            accumulate(bySource, source != null ? source.name() : UNSPECIFIED, leads, convertedLeads);
+            accumulate(byAssignee, assignedTo != null ? assignedTo : UNASSIGNED, leads, convertedLeads);
+            total += leads;
+            converted += convertedLeads;
+        }
+
+        List<LeadService.ConversionRate> assigneeRates = rates(byAssignee);
+        assigneeRates.sort(Comparator.comparingLong(LeadService.ConversionRate::leads).reversed());
+        return new LeadService.ConversionMatrix(
+                total,
+                converted,
+                rate(converted, total),
+                rates(bySource),
+                assigneeRates,
+                cells,
+                LocalDateTime.now()
+        );
+    }
+
+    private List<LeadService.ConversionCohort> loadCohorts(CohortRange range) {
+        log.debug("Aggregating weekly lead conversion cohorts from {} to {}", range.from(), range.to());
+        List<Object[]> rows = leadRepository.conversionCohortsByWeek(range.from().atStartOfDay(), range.to().atStartOfDay());
+        List<LeadService.ConversionCohort> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            long leads = ((Number) row[1]).longValue();
+            long converted = ((Number) row[2]).longValue();
+            result.add(new LeadService.ConversionCohort(
+                    ((Date) row[0]).toLocalDate(),
+                    leads,
+                    converted,
+                    rate(converted, leads),
+                    row[3] != null ? ((Number) row[3]).doubleValue() : null,
+                    ((Number) row[4]).longValue(),
+                    ((Number) row[5]).longValue(),
+                    ((Number) row[6]).longValue(),
+                    ((Number) row[7]).longValue()
+            ));
+        }
+        return List.copyOf(result);
+    }
+
+    private static void accumulate(Map<String, long[]> totals, String key, long leads, long converted) {
+        long[] counts = totals.computeIfAbsent(key, k -> new long[2]);
+        counts[0] += leads;
+        counts[1] += converted;
+    }
+
+    private static List<LeadService.ConversionRate> rates(Map<String, long[]> totals) {
+        List<LeadService.ConversionRate> rates = new ArrayList<>(totals.size());
+        totals.forEach((key, counts) -> rates.add(new LeadService.ConversionRate(key, counts[0], counts[1], rate(counts[1], counts[0]))));
+        return rates;
+    }
+
+    private static double rate(long converted, long total) {
+        return total == 0 ? 0.0 : (double) converted / total * 100;
+    }
+
+    private record CohortRange(LocalDate from, LocalDate to) {}
+}
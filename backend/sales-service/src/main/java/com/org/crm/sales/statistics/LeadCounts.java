@@ -0,0 +1,148 @@
+package com.org.crm.sales.statistics;
+
+import com.org.crm.sales.model.Lead;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable status x source x priority count cube for leads, with expected
+ * value sums per status.
+ *
+ * Cells are stored in a flat {@code long[]} indexed by enum ordinal, with one
+ * extra source and priority column for leads that have none. New enum
+ * constants are picked up automatically.
+ */
+public final class LeadCounts {
+
+    static final Lead.LeadStatus[] STATUSES = Lead.LeadStatus.values();
+    static final Lead.LeadSource[] SOURCES = Lead.LeadSource.values();
+    static final Lead.LeadPriority[] PRIORITIES = Lead.LeadPriority.values();
+
+    static final int SOURCE_COLUMNS = SOURCES.length + 1;
+    static final int PRIORITY_COLUMNS = PRIORITIES.length + 1;
+
+    private final long[] cells;
+    private final BigDecimal[] valueByStatus;
+    private final long[] valuedByStatus;
+
+    private LeadCounts(long[] cells, BigDecimal[] valueByStatus, long[] valuedByStatus) {
+        this.cells = cells;
+        this.valueByStatus = valueByStatus;
+        this.valuedByStatus = valuedByStatus;
+    }
+
+    /**
+     * Build counts from rows of {@code [status, source, priority, count, sum(expectedValue), count(expectedValue)]}
+     */
+    public static LeadCounts fromGroupedRows(List<Object[]> rows) {
+        long[] cells = new long[STATUSES.length * SOURCE_COLUMNS * PRIORITY_COLUMNS];
+        BigDecimal[] valueByStatus = new BigDecimal[STATUSES.length];
+        long[] valuedByStatus = new long[STATUSES.length];
+        Arrays.fill(valueByStatus, BigDecimal.ZERO);
+
+        for (Object[] row : rows) {
+            Lead.LeadStatus status = (Lead.LeadStatus) row[0];
+            if (status == null) {
+                continue;
+            }
+            cells[cellIndex(status, (Lead.LeadSource) row[1], (Lead.LeadPriority) row[2])] += ((Number) row[3]).longValue();
+            if (row[4] != null) {
+                valueByStatus[status.ordinal()] = valueByStatus[status.ordinal()].add((BigDecimal) row[4]);
+            }
+            valuedByStatus[status.ordinal()] += ((Number) row[5]).longValue();
+        }
+        return new LeadCounts(cells, valueByStatus, valuedByStatus);
+    }
+
+    static int cellIndex(Lead.LeadStatus status, Lead.LeadSource source, Lead.LeadPriority priority) {
+        int sourceColumn = source != null ? source.ordinal() : SOURCES.length;
+        int priorityColumn = priority != null ? priority.ordinal() : PRIORITIES.length;
+        return (status.ordinal() * SOURCE_COLUMNS + sourceColumn) * PRIORITY_COLUMNS + priorityColumn;
+    }
+
+    /**
+     * Total number of leads
+     */
+    public long total() {
+        long total = 0;
+        for (long cell : cells) {
+            total += cell;
+        }
+        return total;
+    }
+
+    /**
+     * Lead counts per status, indexed by {@link Lead.LeadStatus#ordinal()}
+     */
+    public long[] statusHistogram() {
+        long[] histogram = new long[STATUSES.length];
+        int perStatus = SOURCE_COLUMNS * PRIORITY_COLUMNS;
+        for (int i = 0; i < cells.length; i++) {
+            histogram[i / perStatus] += cells[i];
+        }
+        return histogram;
+    }
+
+    /**
+     * Lead counts per source, indexed by {@link Lead.LeadSource#ordinal()}; leads without a source are left out
+     */
+    public long[] sourceHistogram() {
+        long[] histogram = new long[SOURCES.length];
+        for (int i = 0; i < cells.length; i++) {
+            int sourceColumn = (i / PRIORITY_COLUMNS) % SOURCE_COLUMNS;
+            if (sourceColumn < SOURCES.length) {
+                histogram[sourceColumn] += cells[i];
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Lead counts per priority, indexed by {@link Lead.LeadPriority#ordinal()}; leads without a priority are left out
+     */
+    public long[] priorityHistogram() {
+        long[] histogram = new long[PRIORITIES.length];
+        for (int i = 0; i < cells.length; i++) {
+            int priorityColumn = i % PRIORITY_COLUMNS;
+            if (priorityColumn < PRIORITIES.length) {
+                histogram[priorityColumn] += cells[i];
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Sum of expected values of leads with the given status
+     */
+    public BigDecimal totalExpectedValue(Lead.LeadStatus status) {
+        return valueByStatus[status.ordinal()];
+    }
+
+    /**
+     * Sum of expected values over all leads
+     */
+    public BigDecimal totalExpectedValue() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal value : valueByStatus) {
+            total = total.add(value);
+        }
+        return total;
+    }
+
+    /**
+     * Average expected value over leads that have one, matching SQL AVG
+     */
+    public BigDecimal averageExpectedValue() {
+        long valued = 0;
+        for (long count : valuedByStatus) {
+            valued += count;
+        }
+        if (valued == 0) {
+            return BigDecimal.ZERO;
+        }
+        return totalExpectedValue().divide(BigDecimal.valueOf(valued), 2, RoundingMode.HALF_UP);
+    }
+}
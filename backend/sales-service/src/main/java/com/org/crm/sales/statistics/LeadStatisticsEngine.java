@@ -0,0 +1,64 @@
+package com.org.crm.sales.statistics;
+
+import com.org.crm.sales.model.Lead;
+import com.org.crm.sales.repository.LeadRepository;
+import com.org.crm.sales.service.LeadService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Computes lead statistics from a single grouped query over the leads table
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeadStatisticsEngine {
+
+    private final LeadRepository leadRepository;
+
+    /**
+     * Load the full status x source x priority cube and value sums in one round trip
+     */
+    @Transactional(readOnly = true)
+    public LeadCounts aggregate() {
+        log.debug("Aggregating lead counts by status, source and priority");
+        return LeadCounts.fromGroupedRows(leadRepository.aggregateGroupByStatusSourceAndPriority());
+    }
+
+    /**
+     * Convert a count cube into the statistics DTO
+     */
+    public LeadService.LeadStatistics toStatistics(LeadCounts counts) {
+        long[] byStatus = counts.statusHistogram();
+        long[] bySource = counts.sourceHistogram();
+        long[] byPriority = counts.priorityHistogram();
+
+        return new LeadService.LeadStatistics(
+                counts.total(),
+                byStatus[Lead.LeadStatus.NEW.ordinal()],
+                byStatus[Lead.LeadStatus.CONTACTED.ordinal()],
+                byStatus[Lead.LeadStatus.QUALIFIED.ordinal()],
+                byStatus[Lead.LeadStatus.PROPOSAL_SENT.ordinal()],
+                byStatus[Lead.LeadStatus.NEGOTIATION.ordinal()],
+                byStatus[Lead.LeadStatus.CLOSED_WON.ordinal()],
+                byStatus[Lead.LeadStatus.CLOSED_LOST.ordinal()],
+                byStatus[Lead.LeadStatus.CONVERTED.ordinal()],
+                bySource[Lead.LeadSource.WEBSITE.ordinal()],
+                bySource[Lead.LeadSource.REFERRAL.ordinal()],
+                bySource[Lead.LeadSource.SOCIAL_MEDIA.ordinal()],
+                bySource[Lead.LeadSource.COLD_CALL.ordinal()],
+                bySource[Lead.LeadSource.TRADE_SHOW.ordinal()],
+                bySource[Lead.LeadSource.EMAIL_CAMPAIGN.ordinal()],
+                bySource[Lead.LeadSource.ADVERTISING.ordinal()],
+                bySource[Lead.LeadSource.OTHER.ordinal()],
+                byPriority[Lead.LeadPriority.LOW.ordinal()],
+                byPriority[Lead.LeadPriority.MEDIUM.ordinal()],
+                byPriority[Lead.LeadPriority.HIGH.ordinal()],
+                byPriority[Lead.LeadPriority.URGENT.ordinal()],
+                counts.totalExpectedValue(),
+                counts.averageExpectedValue()
+        );
+    }
+}
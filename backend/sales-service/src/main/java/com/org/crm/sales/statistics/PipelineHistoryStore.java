@@ -0,0 +1,230 @@
+package com.org.crm.sales.statistics;
+
+import com.org.crm.sales.model.Opportunity;
+import com.org.crm.sales.service.OpportunityService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Append-only daily history of the stage x assignee pipeline.
+ *
+ * Opportunity events mark the pipeline as changed; a scheduled job then copies
+ * the incrementally maintained pipeline snapshot into the rows of the database's
+ * {@code CURRENT_DATE}, read inside the capture transaction. The snapshot only
+ * holds the current pipeline, so earlier days are never rewritten: a change that
+ * is captured after midnight, e.g. from a late event or a retried capture, lands
+ * in the new day. An extra capture at {@code close-cron}, just before midnight,
+ * closes each day with the pipeline as of its end. Days without changes are not
+ * stored, so the pipeline on any date is the latest captured day on or before it.
+ */
+@Component
+@Slf4j
+public class PipelineHistoryStore {
+
+    private static final String LOCK_KEY = "opportunity_pipeline_history";
+
+    private static final String CLEAR_DAY_SQL = "DELETE FROM opportunity_pipeline_history WHERE snapshot_date = CURRENT_DATE";
+
+    private static final String CAPTURE_SQL =
+            "INSERT INTO opportunity_pipeline_history " +
+            "(snapshot_date, stage, assigned_to, opportunity_count, total_amount, weighted_amount, captured_at) " +
+            "SELECT CURRENT_DATE, stage, assigned_to, SUM(opportunity_count), SUM(total_amount), SUM(weighted_amount), now() " +
+            "FROM opportunity_pipeline_snapshot " +
+            "GROUP BY stage, assigned_to " +
+            "HAVING SUM(opportunity_count) <> 0";
+
+    private static final String SERIES_SQL =
+            "WITH periods AS (" +
+            "  SELECT CAST(gs AS date) AS period_start, " +
+            "         LEAST(CAST(gs + CAST(:step AS interval) AS date) - 1, CAST(:to AS date)) AS period_end " +
+            "  FROM generate_series(date_trunc(:unit, CAST(:from AS timestamp)), CAST(:to AS timestamp), " +
+            "                       CAST(:step AS interval)) gs" +
+            ") " +
+            "SELECT p.period_start, h.snapshot_date, h.stage, SUM(h.opportunity_count), " +
+            "       SUM(h.total_amount), SUM(h.weighted_amount) " +
+            "FROM periods p " +
+            "JOIN LATERAL (SELECT MAX(snapshot_date) AS snapshot_date FROM opportunity_pipeline_history " +
+            "              WHERE snapshot_date <= p.period_end) latest ON true " +
+            "JOIN opportunity_pipeline_history h ON h.snapshot_date = latest.snapshot_date " +
+            "%s" +
+            "GROUP BY p.period_start, h.snapshot_date, h.stage " +
+            "ORDER BY p.period_start";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean changed = new AtomicBoolean(true);
+
+    public PipelineHistoryStore(JdbcTemplate jdbcTemplate,
+                                NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Note that the pipeline changed so the current day is captured again
+     */
+    public void markChanged() {
+        changed.set(true);
+    }
+
+    /**
+     * Capture the current day if the pipeline changed since the last capture
+     */
+    @Scheduled(fixedDelayString = "${crm.sales.pipeline.history.capture-interval-ms:60000}",
+               initialDelayString = "${crm.sales.pipeline.history.capture-interval-ms:60000}")
+    public void captureIfChanged() {
+        if (!changed.getAndSet(false)) {
+            return;
+        }
+        boolean captured;
+        try {
+            captured = Boolean.TRUE.equals(transactionTemplate.execute(status -> capture()));
+        } catch (DataAccessException e) {
+            log.warn("Failed to capture pipeline history, will retry: {}", e.getMessage());
+            captured = false;
+        }
+        if (!captured) {
+            changed.set(true);
+        }
+    }
+
+    /**
+     * Close the day with its last changes before the date rolls over
+     */
+    @Scheduled(cron = "${crm.sales.pipeline.history.close-cron:50 59 23 * * *}")
+    public void closeDay() {
+        captureIfChanged();
+    }
+
+    /**
+     * Pipeline per period between two dates (inclusive), each period read as of its last day
+     *
+     * @param assignedTo restrict to one assignee, or null for the whole pipeline
+     */
+    public List<OpportunityService.PipelineHistoryPoint> series(LocalDate from, LocalDate to,
+                                                                OpportunityService.PipelineInterval interval,
+                                                                String assignedTo) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", Date.valueOf(from))
+                .addValue("to", Date.valueOf(to))
+                .addValue("unit", unit(interval))
+                .addValue("step", step(interval));
+        String filter = "";
+        if (assignedTo != null) {
+            filter = "WHERE h.assigned_to = :assignedTo ";
+            params.addValue("assignedTo", assignedTo);
+        }
+
+        List<Row> rows = namedParameterJdbcTemplate.query(SERIES_SQL.formatted(filter), params, (rs, rowNum) -> new Row(
+                rs.getDate(1).toLocalDate(),
+                rs.getDate(2).toLocalDate(),
+                Opportunity.OpportunityStage.valueOf(rs.getString(3)),
+                rs.getLong(4),
+                rs.getBigDecimal(5),
+                rs.getBigDecimal(6)));
+
+        List<OpportunityService.PipelineHistoryPoint> points = new ArrayList<>();
+        PointBuilder current = null;
+        for (Row row : rows) {
+            if (current == null || !current.periodStart.equals(row.periodStart())) {
+                if (current != null) {
+                    points.add(current.build());
+                }
+                current = new PointBuilder(row.periodStart(), row.asOf());
+            }
+            current.add(row);
+        }
+        if (current != null) {
+            points.add(current.build());
+        }
+        return points;
+    }
+
+    private Boolean capture() {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(hashtext(?))", Boolean.class, LOCK_KEY);
+        if (!Boolean.TRUE.equals(locked)) {
+            log.debug("Pipeline history capture already running elsewhere, retrying later");
+            return false;
+        }
+        jdbcTemplate.update(CLEAR_DAY_SQL);
+        int cells = jdbcTemplate.update(CAPTURE_SQL);
+        log.debug("Captured {} pipeline history cells for the current day", cells);
+        return true;
+    }
+
+    private static String unit(OpportunityService.PipelineInterval interval) {
+        return switch (interval) {
+            case DAY -> "day";
+            case WEEK -> "week";
+            case MONTH -> "month";
+            case QUARTER -> "quarter";
+        };
+    }
+
+    private static String step(OpportunityService.PipelineInterval interval) {
+        return switch (interval) {
+            case DAY -> "1 day";
+            case WEEK -> "1 week";
+            case MONTH -> "1 month";
+            case QUARTER -> "3 months";
+        };
+    }
+
+    private record Row(LocalDate periodStart, LocalDate asOf, Opportunity.OpportunityStage stage,
+                       long opportunityCount, BigDecimal totalAmount, BigDecimal weightedAmount) {}
+
+    private static final class PointBuilder {
+        private final LocalDate periodStart;
+        private final LocalDate asOf;
+        private final List<OpportunityService.PipelineRollup> byStage = new ArrayList<>();
+        private long openOpportunities;
+        private BigDecimal openAmount = BigDecimal.ZERO;
+        private BigDecimal weightedForecast = BigDecimal.ZERO;
+
+        private PointBuilder(LocalDate periodStart, LocalDate asOf) {
+            this.periodStart = periodStart;
+            this.asOf = asOf;
+        }
+
+        void add(Row row) {
+            byStage.add(new OpportunityService.PipelineRollup(row.stage().name(), row.opportunityCount(),
+                    row.totalAmount(), row.weightedAmount().setScale(2, RoundingMode.HALF_UP)));
+            if (row.stage() != Opportunity.OpportunityStage.CLOSED_WON
+                    && row.stage() != Opportunity.OpportunityStage.CLOSED_LOST) {
+                openOpportunities += row.opportunityCount();
+                openAmount = openAmount.add(row.totalAmount());
+                weightedForecast = weightedForecast.add(row.weightedAmount());
+            }
+        }
+
+        OpportunityService.PipelineHistoryPoint build() {
+            byStage.sort(Comparator.comparing(rollup -> Opportunity.OpportunityStage.valueOf(rollup.key())));
+            return new OpportunityService.PipelineHistoryPoint(
+                    periodStart,
+                    asOf,
+                    openOpportunities,
+                    openAmount,
+                    weightedForecast.setScale(2, RoundingMode.HALF_UP),
+                    byStage
+            );
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.org.crm.sales.statistics;
+
+import com.org.crm.sales.model.Opportunity;
+import com.org.crm.sales.model.OpportunityPipelineSnapshot;
+import com.org.crm.sales.repository.OpportunityPipelineSnapshotRepository;
+import com.org.crm.sales.service.OpportunityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Materialized stage x type x assignee opportunity pipeline.
+ *
+ * The snapshot table is rebuilt from one grouped pass over opportunities at
+ * startup and on a schedule, and adjusted in the same transaction as every
+ * opportunity write, so statistics and forecasts only read the small snapshot
+ * table. Writers hold a shared advisory lock and the rebuild an exclusive one,
+ * so a rebuild never interleaves with an in-flight adjustment. Callers must
+ * capture the "before" position from a row locked for update, otherwise two
+ * concurrent writes to one opportunity would both subtract the same old cell.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PipelineSnapshotEngine {
+
+    private static final String LOCK_KEY = "opportunity_pipeline_snapshot";
+
+    private static final String CLEAR_SQL = "DELETE FROM opportunity_pipeline_snapshot";
+
+    private static final String REBUILD_SQL =
+            "INSERT INTO opportunity_pipeline_snapshot " +
+            "(stage, type, assigned_to, opportunity_count, total_amount, weighted_amount) " +
+            "SELECT stage, COALESCE(type, ''), COALESCE(assigned_to, ''), COUNT(*), SUM(amount), " +
+            "SUM(amount * COALESCE(probability, 0)) / 100 " +
+            "FROM opportunities " +
+            "GROUP BY stage, COALESCE(type, ''), COALESCE(assigned_to, '')";
+
+    private static final String ADJUST_SQL =
+            "INSERT INTO opportunity_pipeline_snapshot " +
+            "(stage, type, assigned_to, opportunity_count, total_amount, weighted_amount) " +
+            "VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (stage, type, assigned_to) DO UPDATE SET " +
+            "opportunity_count = opportunity_pipeline_snapshot.opportunity_count + EXCLUDED.opportunity_count, " +
+            "total_amount = opportunity_pipeline_snapshot.total_amount + EXCLUDED.total_amount, " +
+            "weighted_amount = opportunity_pipeline_snapshot.weighted_amount + EXCLUDED.weighted_amount";
+
+    private final OpportunityPipelineSnapshotRepository snapshotRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Rebuild the snapshot table from the opportunities table
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${crm.sales.pipeline.refresh-interval-ms:900000}",
+               initialDelayString = "${crm.sales.pipeline.refresh-interval-ms:900000}")
+    @Transactional
+    public void refresh() {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext(?))", rs -> null, LOCK_KEY);
+        jdbcTemplate.update(CLEAR_SQL);
+        int cells = jdbcTemplate.update(REBUILD_SQL);
+        log.debug("Rebuilt opportunity pipeline snapshot with {} cells", cells);
+    }
+
+    /**
+     * Add a new opportunity to the snapshot within the current transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Position position) {
+        adjust(List.of(position.delta(1)));
+    }
+
+    /**
+     * Remove a deleted opportunity from the snapshot within the current transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Position position) {
+        adjust(List.of(position.delta(-1)));
+    }
+
+    /**
+     * Move an opportunity's contribution between cells within the current transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanged(Position before, Position after) {
+        if (before.equals(after)) {
+            return;
+        }
+        adjust(List.of(before.delta(-1), after.delta(1)));
+    }
+
+    /**
+     * Current non-empty pipeline cells
+     */
+    @Transactional(readOnly = true)
+    public List<OpportunityService.PipelineCell> cells() {
+        return snapshotRepository.findNonEmpty().stream()
+                .map(PipelineSnapshotEngine::toCell)
+                .toList();
+    }
+
+    /**
+     * Convert pipeline cells into the statistics DTO
+     */
+    public OpportunityService.OpportunityStatistics toStatistics(List<OpportunityService.PipelineCell> cells) {
+        long[] byStage = new long[Opportunity.OpportunityStage.values().length];
+        long[] byType = new long[Opportunity.OpportunityType.values().length];
+        long total = 0;
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        BigDecimal totalWeightedAmount = BigDecimal.ZERO;
+        BigDecimal wonAmount = BigDecimal.ZERO;
+        BigDecimal lostAmount = BigDecimal.ZERO;
+
+        for (OpportunityService.PipelineCell cell : cells) {
+            total += cell.opportunityCount();
+            byStage[cell.stage().ordinal()] += cell.opportunityCount();
+            if (cell.type() != null) {
+                byType[cell.type().ordinal()] += cell.opportunityCount();
+            }
+            totalAmount = totalAmount.add(cell.totalAmount());
+            totalWeightedAmount = totalWeightedAmount.add(cell.weightedAmount());
+            if (cell.stage() == Opportunity.OpportunityStage.CLOSED_WON) {
+                wonAmount = wonAmount.add(cell.totalAmount());
+            } else if (cell.stage() == Opportunity.OpportunityStage.CLOSED_LOST) {
+                lostAmount = lostAmount.add(cell.totalAmount());
+            }
+        }
+
+        long won = byStage[Opportunity.OpportunityStage.CLOSED_WON.ordinal()];
+        return new OpportunityService.OpportunityStatistics(
+                total,
+                byStage[Opportunity.OpportunityStage.PROSPECTING.ordinal()],
+                byStage[Opportunity.OpportunityStage.QUALIFICATION.ordinal()],
+                byStage[Opportunity.OpportunityStage.PROPOSAL.ordinal()],
+                byStage[Opportunity.OpportunityStage.NEGOTIATION.ordinal()],
+                won,
+                byStage[Opportunity.OpportunityStage.CLOSED_LOST.ordinal()],
+                byType[Opportunity.OpportunityType.NEW_BUSINESS.ordinal()],
+                byType[Opportunity.OpportunityType.EXISTING_BUSINESS.ordinal()],
+                byType[Opportunity.OpportunityType.RENEWAL.ordinal()],
+                byType[Opportunity.OpportunityType.UPSELL.ordinal()],
+                byType[Opportunity.OpportunityType.CROSS_SELL.ordinal()],
+                totalAmount,
+                totalWeightedAmount.setScale(2, RoundingMode.HALF_UP),
+                total > 0 ? totalAmount.divide(BigDecimal.valueOf(total), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO,
+                wonAmount,
+                lostAmount,
+                total > 0 ? (double) won / total * 100 : 0.0
+        );
+    }
+
+    /**
+     * Roll the open (not closed) part of the pipeline up by stage, type and assignee
+     */
+    public OpportunityService.PipelineForecast toForecast(List<OpportunityService.PipelineCell> cells) {
+        List<OpportunityService.PipelineCell> open = cells.stream()
+                .filter(cell -> cell.stage() != Opportunity.OpportunityStage.CLOSED_WON
+                        && cell.stage() != Opportunity.OpportunityStage.CLOSED_LOST)
+                .toList();
+        Rollup total = new Rollup();
+        open.forEach(total::add);
+        return new OpportunityService.PipelineForecast(
+                total.count,
+                total.amount,
+                total.weightedAmount.setScale(2, RoundingMode.HALF_UP),
+                rollUp(open, cell -> cell.stage().name()),
+                rollUp(open, cell -> cell.type() != null ? cell.type().name() : null),
+                rollUp(open, OpportunityService.PipelineCell::assignedTo),
+                cells
+        );
+    }
+
+    private static List<OpportunityService.PipelineRollup> rollUp(List<OpportunityService.PipelineCell> cells,
+                                                                 Function<OpportunityService.PipelineCell, String> key) {
+        Map<String, Rollup> groups = new LinkedHashMap<>();
+        for (OpportunityService.PipelineCell cell : cells) {
+            String group = Objects.requireNonNullElse(key.apply(cell), OpportunityPipelineSnapshot.NONE);
+            groups.computeIfAbsent(group, k -> new Rollup()).add(cell);
+        }
+
+        List<OpportunityService.PipelineRollup> rollups = new ArrayList<>(groups.size());
+        groups.forEach((group, rollup) -> rollups.add(new OpportunityService.PipelineRollup(
+                group.isEmpty() ? null : group,
+                rollup.count,
+                rollup.amount,
+                rollup.weightedAmount.setScale(2, RoundingMode.HALF_UP))));
+        rollups.sort(Comparator.comparing(OpportunityService.PipelineRollup::weightedAmount).reversed());
+        return rollups;
+    }
+
+    private void adjust(List<Delta> deltas) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock_shared(hashtext(?))", rs -> null, LOCK_KEY);
+        jdbcTemplate.batchUpdate(ADJUST_SQL, deltas, deltas.size(), (ps, delta) -> {
+            ps.setString(1, delta.stage().name());
+            ps.setString(2, delta.type());
+            ps.setString(3, delta.assignedTo());
+            ps.setLong(4, delta.count());
+            ps.setBigDecimal(5, delta.amount());
+            ps.setBigDecimal(6, delta.weightedAmount());
+        });
+    }
+
+    private static OpportunityService.PipelineCell toCell(OpportunityPipelineSnapshot snapshot) {
+        return new OpportunityService.PipelineCell(
+                snapshot.getStage(),
+                snapshot.getType().isEmpty() ? null : Opportunity.OpportunityType.valueOf(snapshot.getType()),
+                snapshot.getAssignedTo().isEmpty() ? null : snapshot.getAssignedTo(),
+                snapshot.getOpportunityCount(),
+                snapshot.getTotalAmount(),
+                snapshot.getWeightedAmount()
+        );
+    }
+
+    /**
+     * The pipeline-relevant fields of one opportunity, captured before and after a write
+     */
+    public record Position(Opportunity.OpportunityStage stage,
+                           Opportunity.OpportunityType type,
+                           String assignedTo,
+                           BigDecimal amount,
+                           Integer probability) {
+
+        public static Position of(Opportunity opportunity) {
+            return new Position(
+                    opportunity.getStage(),
+                    opportunity.getType(),
+                    opportunity.getAssignedTo(),
+                    opportunity.getAmount(),
+                    opportunity.getProbability()
+            );
+        }
+
+        Delta delta(int sign) {
+            BigDecimal amount = this.amount != null ? this.amount : BigDecimal.ZERO;
+            BigDecimal weighted = probability != null
+                    ? amount.multiply(BigDecimal.valueOf(probability)).movePointLeft(2)
+                    : BigDecimal.ZERO;
+            BigDecimal factor = BigDecimal.valueOf(sign);
+            return new Delta(
+                    stage,
+                    type != null ? type.name() : OpportunityPipelineSnapshot.NONE,
+                    assignedTo != null ? assignedTo : OpportunityPipelineSnapshot.NONE,
+                    sign,
+                    amount.multiply(factor),
+                    weighted.multiply(factor)
+            );
+        }
+    }
+
+    private static final class Rollup {
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+        private BigDecimal weightedAmount = BigDecimal.ZERO;
+
+        void add(OpportunityService.PipelineCell cell) {
+            count += cell.opportunityCount();
+            amount = amount.add(cell.totalAmount());
+            weightedAmount = weightedAmount.add(cell.weightedAmount());
+        }
+    }
+
+    private record Delta(Opportunity.OpportunityStage stage, String type, String assignedTo,
+                         long count, BigDecimal amount, BigDecimal weightedAmount) {}
+}
@@ -0,0 +1,97 @@
+package com.org.crm.sales.statistics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.org.crm.sales.repository.OpportunityRepository;
+import com.org.crm.sales.service.OpportunityService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sales rep leaderboard: win rate, won amount, average deal size and cycle
+ * time for every assignee from one grouped query, ranked and limited in the
+ * database.
+ *
+ * Results are cached for {@code expire-after-write-ms} and dropped as soon as
+ * any instance publishes an opportunity change, so the TTL only bounds
+ * staleness for writes that publish no event.
+ */
+@Component
+@Slf4j
+public class WinRateLeaderboard {
+
+    private static final int ALL_REPS = Integer.MAX_VALUE;
+
+    private final OpportunityRepository opportunityRepository;
+    private final Cache<LeaderboardQuery, OpportunityService.Leaderboard> leaderboards;
+
+    public WinRateLeaderboard(OpportunityRepository opportunityRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${crm.sales.analytics.maximum-size:500}") long maximumSize,
+                              @Value("${crm.sales.analytics.expire-after-write-ms:60000}") long expireAfterWriteMs) {
+        this.opportunityRepository = opportunityRepository;
+        this.leaderboards = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, leaderboards, "opportunities.leaderboard");
+    }
+
+    /**
+     * Top {@code limit} reps by the given metric among reps with at least {@code minOpportunities}, from cache when possible
+     */
+    public OpportunityService.Leaderboard top(OpportunityService.LeaderboardMetric metric, int limit, long minOpportunities) {
+        return leaderboards.get(new LeaderboardQuery(metric, limit, minOpportunities), this::load);
+    }
+
+    /**
+     * Win rate (percent) of one rep, read from the cached full leaderboard
+     */
+    public double winRate(String assignedTo) {
+        return top(OpportunityService.LeaderboardMetric.WIN_RATE, ALL_REPS, 1).entries().stream()
+                .filter(entry -> entry.assignedTo().equals(assignedTo))
+                .mapToDouble(OpportunityService.LeaderboardEntry::winRate)
+                .findFirst()
+                .orElse(0.0);
+    }
+
+    /**
+     * Drop all cached results
+     */
+    public void invalidate() {
+        leaderboards.invalidateAll();
+    }
+
+    private OpportunityService.Leaderboard load(LeaderboardQuery query) {
+        log.debug("Aggregating opportunity leaderboard by {} (limit {}, min {})", query.metric(), query.limit(), query.minOpportunities());
+        List<Object[]> rows = opportunityRepository.winRateLeaderboard(query.metric().name(), query.minOpportunities(), query.limit());
+        List<OpportunityService.LeaderboardEntry> entries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            entries.add(new OpportunityService.LeaderboardEntry(
+                    entries.size() + 1,
+                    (String) row[0],
+                    ((Number) row[1]).longValue(),
+                    ((Number) row[2]).longValue(),
+                    ((Number) row[3]).longValue(),
+                    ((Number) row[7]).doubleValue(),
+                    (BigDecimal) row[4],
+                    row[5] != null ? ((BigDecimal) row[5]).setScale(2, RoundingMode.HALF_UP) : null,
+                    row[6] != null ? ((Number) row[6]).doubleValue() : null
+            ));
+        }
+        return new OpportunityService.Leaderboard(query.metric(), List.copyOf(entries), LocalDateTime.now());
+    }
+
+    private record LeaderboardQuery(OpportunityService.LeaderboardMetric metric, int limit, long minOpportunities) {}
+}
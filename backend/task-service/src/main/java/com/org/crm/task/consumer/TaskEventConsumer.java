@@ -1,6 +1,9 @@
 package com.org.crm.task.consumer;
 
 import com.org.crm.common.events.BaseEvent;
+import com.org.crm.common.events.TaskEvents;
+import com.org.crm.common.messaging.EventDispatcher;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
@@ -12,9 +15,49 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class TaskEventConsumer {
 
+    private final EventDispatcher<String> dispatcher;
+
+    public TaskEventConsumer(MeterRegistry meterRegistry) {
+        this.dispatcher = EventDispatcher.<String>builder("task", meterRegistry)
+                .on(TaskEvents.TaskCreatedEvent.class, this::onTaskCreated)
+                .on(TaskEvents.TaskAssignedEvent.class, this::onTaskAssigned)
+                .on(TaskEvents.TaskCompletedEvent.class, this::onTaskCompleted)
+                .on(TaskEvents.TaskDueSoonEvent.class, this::onTaskDueSoon)
+                .on(TaskEvents.TaskUpdatedEvent.class, this::onTaskUpdated)
+                .on(TaskEvents.TaskDeletedEvent.class, this::onTaskDeleted)
+                .otherwise(event -> "No handler for event " + event.getEventType())
+                .build();
+    }
+
     @RabbitListener(queues = "task.events.queue")
     public void handleTaskEvent(BaseEvent event) {
         log.info("[TaskEventConsumer] Received event: {} - ID: {} - Source: {} - Timestamp: {}", event.getEventType(), event.getEventId(), event.getSource(), event.getTimestamp());
-        // You can add business logic here to react to events if needed
+        log.debug("[TaskEventConsumer] {}", dispatcher.dispatch(event));
+    }
+
+    // You can add business logic to the handlers below to react to events if needed
+
+    private String onTaskCreated(TaskEvents.TaskCreatedEvent event) {
+        return String.format("Task %s created: %s", event.getTaskId(), event.getTitle());
+    }
+
+    private String onTaskAssigned(TaskEvents.TaskAssignedEvent event) {
+        return String.format("Task %s reassigned from %s to %s", event.getTaskId(), event.getOldAssignedTo(), event.getNewAssignedTo());
+    }
+
+    private String onTaskCompleted(TaskEvents.TaskCompletedEvent event) {
+        return String.format("Task %s completed at %s", event.getTaskId(), event.getCompletedAt());
+    }
+
+    private String onTaskDueSoon(TaskEvents.TaskDueSoonEvent event) {
+        return String.format("Task %s due soon: %s", event.getTaskId(), event.getDueDate());
+    }
+
+    private String onTaskUpdated(TaskEvents.TaskUpdatedEvent event) {
+        return String.format("Task %s updated", event.getTaskId());
+    }
+
+    private String onTaskDeleted(TaskEvents.TaskDeletedEvent event) {
+        return String.format("Task %s deleted", event.getTaskId());
     }
-}
\ No newline at end of file
+}
@@ -6,6 +6,7 @@ CREATE DATABASE crm_db;
 
 -- Create extensions if needed
 CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
 
 -- Note: Tables will be created automatically by JPA when the application starts
 -- with ddl-auto: create-drop or ddl-auto: update 
\ No newline at end of file
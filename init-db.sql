@@ -9,6 +9,7 @@ GRANT ALL PRIVILEGES ON DATABASE crm_db TO crm_user;
 
 -- Create extensions if needed
 CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
 
 -- Initialize default roles for CRM system
 INSERT INTO roles (name, description, created_at, updated_at) VALUES